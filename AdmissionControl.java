@@ -0,0 +1,477 @@
+package com.jdbc.crud;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Admission control in front of the connection pools, enabled with
+ * DB_ADMISSION_ENABLED. No more callers than the pool size hold a connection at once;
+ * the rest wait in a bounded queue per pool, highest priority first and in arrival
+ * order within a priority, until their deadline. A caller is rejected with an
+ * {@link AdmissionRejectedException} right away when the queue is full, or when the
+ * wait expected from its place in the queue and the recent connection hold time
+ * would already pass its deadline. It is also rejected if it is still waiting at the
+ * deadline, instead of sitting out the pool's connection timeout.
+ * <p>
+ * Each pool also has a circuit breaker. After DB_CIRCUIT_FAILURE_THRESHOLD consecutive
+ * acquisition timeouts it opens and rejects every caller for DB_CIRCUIT_OPEN_MS. It
+ * then half-opens and lets up to DB_CIRCUIT_PROBES callers through as probes. A
+ * successful probe closes it again; a failed one opens it for another period.
+ * <p>
+ * Priority and deadline apply to every connection requested on the current thread
+ * inside {@link #call} or {@link #run}. Elsewhere a request gets
+ * {@link Priority#NORMAL} and a deadline of DB_ADMISSION_DEADLINE_MS from the moment
+ * it asks. The deadline covers the wait for admission, not the pool's own connect
+ * time.
+ */
+public final class AdmissionControl {
+    public enum Priority {
+        INTERACTIVE, NORMAL, BATCH
+    }
+
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Logger logger = Logger.getLogger(AdmissionControl.class.getName());
+    private static final boolean enabled = DatabaseConnectionManager.getEnvBoolean("DB_ADMISSION_ENABLED", false);
+    private static final int maxQueue = DatabaseConnectionManager.getEnvInt("DB_ADMISSION_MAX_QUEUE", 100);
+    private static final long defaultDeadlineNanos =
+        TimeUnit.MILLISECONDS.toNanos(DatabaseConnectionManager.getEnvInt("DB_ADMISSION_DEADLINE_MS", 10000));
+    private static final int failureThreshold =
+        Math.max(1, DatabaseConnectionManager.getEnvInt("DB_CIRCUIT_FAILURE_THRESHOLD", 5));
+    private static final long openNanos =
+        TimeUnit.MILLISECONDS.toNanos(DatabaseConnectionManager.getEnvInt("DB_CIRCUIT_OPEN_MS", 5000));
+    private static final int maxProbes = Math.max(1, DatabaseConnectionManager.getEnvInt("DB_CIRCUIT_PROBES", 1));
+
+    private static final ThreadLocal<Context> context = new ThreadLocal<>();
+    private static final Map<String, Gate> gates = new ConcurrentHashMap<>();
+    private static final LongAdder admitted = new LongAdder();
+    private static final LongAdder[] rejected = new LongAdder[AdmissionRejectedException.Reason.values().length];
+
+    static {
+        LoggerUtil.configureLogger(logger);
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    private AdmissionControl() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Runs the action with the given priority and a deadline that starts now; a null
+     * deadline means DB_ADMISSION_DEADLINE_MS. Calls nest; the innermost one applies.
+     */
+    public static <T> T call(Priority priority, Duration deadline, Supplier<T> action) {
+        long deadlineNanos = System.nanoTime() + (deadline != null ? deadline.toNanos() : defaultDeadlineNanos);
+        Context previous = context.get();
+        context.set(new Context(priority != null ? priority : Priority.NORMAL, deadlineNanos));
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                context.set(previous);
+            } else {
+                context.remove();
+            }
+        }
+    }
+
+    public static void run(Priority priority, Duration deadline, Runnable action) {
+        call(priority, deadline, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public static long getRejectedCount(AdmissionRejectedException.Reason reason) {
+        return rejected[reason.ordinal()].sum();
+    }
+
+    /** Callers currently waiting for the named pool. */
+    public static int getQueuedCount(String poolName) {
+        Gate gate = gates.get(poolName);
+        return gate != null ? gate.queued() : 0;
+    }
+
+    /**
+     * Admission load of the named pool, or null when admission control is off or the
+     * pool has not been used. Callers held back here never wait inside the pool, so
+     * the pool autotuner adds this to the pool's own statistics.
+     */
+    static Load getLoad(String poolName) {
+        Gate gate = gates.get(poolName);
+        return gate != null ? gate.load() : null;
+    }
+
+    public static CircuitState getCircuitState(String poolName) {
+        Gate gate = gates.get(poolName);
+        return gate != null ? gate.state() : CircuitState.CLOSED;
+    }
+
+    /**
+     * Takes a connection from the pool once the caller is admitted. The returned
+     * connection gives its admission back when it is closed.
+     */
+    static Connection getConnection(HikariDataSource pool) throws SQLException {
+        if (!enabled) {
+            return pool.getConnection();
+        }
+        Gate gate = gates.computeIfAbsent(pool.getPoolName(), name -> new Gate(pool));
+        Context current = context.get();
+        Priority priority = current != null ? current.priority : Priority.NORMAL;
+        long deadlineNanos = current != null ? current.deadlineNanos : System.nanoTime() + defaultDeadlineNanos;
+
+        boolean probe = gate.admit(priority, deadlineNanos);
+        Connection conn;
+        try {
+            conn = pool.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            gate.release(-1);
+            gate.acquired(probe, e);
+            throw e;
+        }
+        gate.acquired(probe, null);
+        admitted.increment();
+        return (Connection) Proxy.newProxyInstance(AdmissionControl.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, new AdmittedConnection(conn, gate));
+    }
+
+    /** Forgets all pools; called when the pools are shut down. */
+    static void clear() {
+        gates.clear();
+    }
+
+    private static AdmissionRejectedException reject(AdmissionRejectedException.Reason reason, String poolName,
+                                                     String message) {
+        rejected[reason.ordinal()].increment();
+        return new AdmissionRejectedException(message, reason, poolName);
+    }
+
+    private static final class Context {
+        private final Priority priority;
+        private final long deadlineNanos;
+
+        Context(Priority priority, long deadlineNanos) {
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /** Queue depth now and running totals since the gate was created. */
+    static final class Load {
+        final int queued;
+        final long admissions;
+        final long waitNanos;
+        final long rejections;
+
+        Load(int queued, long admissions, long waitNanos, long rejections) {
+            this.queued = queued;
+            this.admissions = admissions;
+            this.waitNanos = waitNanos;
+            this.rejections = rejections;
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        private final Priority priority;
+        private final long sequence;
+        private final Condition condition;
+        private boolean granted;
+
+        Waiter(Priority priority, long sequence, Condition condition) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Admission state of one pool. Everything is guarded by the lock; holders are
+     * counted here, not in the pool, so the count includes only admitted callers.
+     */
+    private static final class Gate {
+        private final HikariDataSource pool;
+        private final String poolName;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+        private long sequence;
+        private int holders;
+        private long meanHoldNanos;
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveTimeouts;
+        private long openUntilNanos;
+        private int probes;
+        private long admissions;
+        private long waitNanos;
+        // Queue full and deadline rejections; an open circuit is not a sign of a small pool
+        private long overloadRejections;
+
+        Gate(HikariDataSource pool) {
+            this.pool = pool;
+            this.poolName = pool.getPoolName();
+        }
+
+        /**
+         * Waits for admission and returns whether the caller is a half-open probe.
+         */
+        boolean admit(Priority priority, long deadlineNanos) {
+            lock.lock();
+            try {
+                boolean probe = checkCircuit();
+                long start = System.nanoTime();
+                try {
+                    waitForTurn(priority, deadlineNanos);
+                    admissions++;
+                    waitNanos += System.nanoTime() - start;
+                } catch (RuntimeException e) {
+                    if (e instanceof AdmissionRejectedException) {
+                        overloadRejections++;
+                    }
+                    if (probe) {
+                        probes--;
+                    }
+                    throw e;
+                }
+                return probe;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean checkCircuit() {
+            if (state == CircuitState.OPEN) {
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    throw reject(AdmissionRejectedException.Reason.CIRCUIT_OPEN, poolName,
+                        "Circuit breaker for pool " + poolName + " is open");
+                }
+                state = CircuitState.HALF_OPEN;
+                probes = 0;
+                logger.log(Level.INFO, "Circuit breaker for pool {0} half-open, sending probes", poolName);
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (probes >= maxProbes) {
+                    throw reject(AdmissionRejectedException.Reason.CIRCUIT_OPEN, poolName,
+                        "Circuit breaker for pool " + poolName + " is half-open and its probes are in flight");
+                }
+                probes++;
+                return true;
+            }
+            return false;
+        }
+
+        private void waitForTurn(Priority priority, long deadlineNanos) {
+            int capacity = capacity();
+            grant(capacity);
+            if (holders < capacity && waiters.isEmpty()) {
+                holders++;
+                return;
+            }
+            if (waiters.size() >= maxQueue) {
+                throw reject(AdmissionRejectedException.Reason.QUEUE_FULL, poolName,
+                    "Admission queue for pool " + poolName + " is full (" + maxQueue + " waiting)");
+            }
+            int position = 1;
+            for (Waiter waiter : waiters) {
+                if (waiter.priority.compareTo(priority) <= 0) {
+                    position++;
+                }
+            }
+            // Every round of releases admits up to a pool's worth of waiters
+            long expectedWaitNanos = (long) ((position + capacity - 1) / capacity) * meanHoldNanos;
+            if (System.nanoTime() + expectedWaitNanos - deadlineNanos > 0) {
+                throw reject(AdmissionRejectedException.Reason.DEADLINE, poolName,
+                    "Expected wait of " + TimeUnit.NANOSECONDS.toMillis(expectedWaitNanos) + " ms for pool "
+                        + poolName + " exceeds the deadline");
+            }
+
+            Waiter waiter = new Waiter(priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            try {
+                while (!waiter.granted) {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        waiters.remove(waiter);
+                        throw reject(AdmissionRejectedException.Reason.DEADLINE, poolName,
+                            "Deadline passed while waiting for a connection from pool " + poolName);
+                    }
+                    waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    releaseLocked(-1);
+                } else {
+                    waiters.remove(waiter);
+                }
+                Thread.currentThread().interrupt();
+                throw new CrudException("Interrupted while waiting for a connection from pool " + poolName, e);
+            }
+        }
+
+        /** Records the outcome of taking a connection from the pool after admission. */
+        void acquired(boolean probe, Exception failure) {
+            lock.lock();
+            try {
+                if (probe) {
+                    probes--;
+                }
+                if (failure == null) {
+                    consecutiveTimeouts = 0;
+                    if (probe && state == CircuitState.HALF_OPEN) {
+                        state = CircuitState.CLOSED;
+                        logger.log(Level.INFO, "Circuit breaker for pool {0} closed", poolName);
+                    }
+                } else if (probe && state == CircuitState.HALF_OPEN) {
+                    open("probe failed: " + failure.getMessage());
+                } else if (failure instanceof SQLTransientConnectionException
+                    && ++consecutiveTimeouts >= failureThreshold && state == CircuitState.CLOSED) {
+                    open(consecutiveTimeouts + " consecutive acquisition timeouts");
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void open(String why) {
+            state = CircuitState.OPEN;
+            openUntilNanos = System.nanoTime() + openNanos;
+            consecutiveTimeouts = 0;
+            logger.log(Level.WARNING, "Circuit breaker for pool {0} opened: {1}", new Object[]{poolName, why});
+        }
+
+        /** Gives an admission back; a negative hold time is not sampled. */
+        void release(long holdNanos) {
+            lock.lock();
+            try {
+                releaseLocked(holdNanos);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void releaseLocked(long holdNanos) {
+            holders--;
+            if (holdNanos >= 0) {
+                // Moving average over roughly the last eight holds
+                meanHoldNanos = meanHoldNanos == 0 ? holdNanos : meanHoldNanos + (holdNanos - meanHoldNanos) / 8;
+            }
+            grant(capacity());
+        }
+
+        private void grant(int capacity) {
+            while (holders < capacity && !waiters.isEmpty()) {
+                Waiter next = waiters.poll();
+                next.granted = true;
+                holders++;
+                next.condition.signal();
+            }
+        }
+
+        private int capacity() {
+            // Follows resizes made by the autotuner
+            return Math.max(1, pool.getMaximumPoolSize());
+        }
+
+        int queued() {
+            lock.lock();
+            try {
+                return waiters.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Load load() {
+            lock.lock();
+            try {
+                return new Load(waiters.size(), admissions, waitNanos, overloadRejections);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        CircuitState state() {
+            lock.lock();
+            try {
+                return state;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class AdmittedConnection implements InvocationHandler {
+        private final Connection target;
+        private final Gate gate;
+        private final long admittedNanos = System.nanoTime();
+        private boolean released;
+
+        AdmittedConnection(Connection target, Gate gate) {
+            this.target = target;
+            this.gate = gate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        try {
+                            return invokeTarget(method, args);
+                        } finally {
+                            gate.release(System.nanoTime() - admittedNanos);
+                        }
+                    }
+                    return invokeTarget(method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return invokeTarget(method, args);
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.jdbc.crud;
+
+/**
+ * Thrown when admission control turns a request for a connection away instead of
+ * letting it wait. Nothing was sent to the database, so the call can safely be
+ * retried later or answered with a fallback.
+ */
+public class AdmissionRejectedException extends CrudException {
+    public enum Reason {
+        /** The wait queue of the pool was full. */
+        QUEUE_FULL,
+        /** The expected or actual wait went past the caller's deadline. */
+        DEADLINE,
+        /** The circuit breaker of the pool is open. */
+        CIRCUIT_OPEN
+    }
+
+    private final Reason reason;
+    private final String poolName;
+
+    public AdmissionRejectedException(String message, Reason reason, String poolName) {
+        super(message);
+        this.reason = reason;
+        this.poolName = poolName;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+}
@@ -0,0 +1,195 @@
+package com.jdbc.crud;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking facade over {@link CrudOperations}. Every call runs on its own virtual
+ * thread, but only as many calls as the pool has connections are admitted at once;
+ * the rest wait cheaply instead of inside the pool, where they would time out after
+ * the connection timeout. The limit is shared by all instances and follows the
+ * primary pool's current size, so it stays right when the pool is resized. Calls
+ * never take part in a transaction. Requires Java 21.
+ */
+public class AsyncCrudOperations implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(AsyncCrudOperations.class.getName());
+    private static final Slots slots = new Slots();
+
+    private final CrudOperations crudOps = new CrudOperations();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    public AsyncCrudOperations() {
+        this.maxConcurrency = 0;
+        this.permits = null;
+    }
+
+    /**
+     * Additionally caps this instance at a fixed number of concurrent calls, below
+     * the shared limit.
+     */
+    public AsyncCrudOperations(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public CompletableFuture<Void> createRecord(String tableName, String[] columns, Object[] values) {
+        return submit(() -> {
+            crudOps.createRecord(tableName, columns, values);
+            return null;
+        });
+    }
+
+    public CompletableFuture<int[]> createRecords(String tableName, String[] columns, Iterable<Object[]> rows) {
+        return submit(() -> crudOps.createRecords(tableName, columns, rows));
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> readRecords(String tableName, String[] columns,
+                                                                    String whereClause, Object... whereParams) {
+        return submit(() -> crudOps.readRecords(tableName, columns, whereClause, whereParams));
+    }
+
+    public CompletableFuture<Void> updateRecord(String tableName, String[] columns, Object[] values,
+                                                String whereClause, Object... whereParams) {
+        return submit(() -> {
+            crudOps.updateRecord(tableName, columns, values, whereClause, whereParams);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> deleteRecord(String tableName, String whereClause, Object... whereParams) {
+        return submit(() -> {
+            crudOps.deleteRecord(tableName, whereClause, whereParams);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Map<String, Object>>> executeJoinQuery(String joinQuery) {
+        return submit(() -> crudOps.executeJoinQuery(joinQuery));
+    }
+
+    public CompletableFuture<Void> executeStoredProcedure(String procedureName, Object... params) {
+        return submit(() -> {
+            crudOps.executeStoredProcedure(procedureName, params);
+            return null;
+        });
+    }
+
+    /** Current limit on concurrent calls of this instance. */
+    public int getMaxConcurrency() {
+        int shared = DatabaseConnectionManager.getMaximumPoolSize();
+        return maxConcurrency > 0 ? Math.min(maxConcurrency, shared) : shared;
+    }
+
+    /** Calls of this instance holding a slot, i.e. using or about to use a connection. */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /** Calls of this instance waiting for a slot. */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            queued.incrementAndGet();
+            try {
+                if (permits != null) {
+                    permits.acquire();
+                }
+                try {
+                    slots.acquire();
+                } catch (InterruptedException e) {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CrudException("Interrupted while waiting for a connection slot", e);
+            } finally {
+                queued.decrementAndGet();
+            }
+            active.incrementAndGet();
+            try {
+                return operation.get();
+            } finally {
+                active.decrementAndGet();
+                slots.release();
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        }, executor);
+    }
+
+    /**
+     * Stops accepting new calls and waits for the calls already submitted to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+        logger.log(Level.INFO, "Async CRUD executor shut down");
+    }
+
+    /**
+     * Connection slots shared by all instances. The limit is the primary pool's
+     * maximum size, read on every acquire, so a resize by the auto-tuner takes
+     * effect with the next call.
+     */
+    private static final class Slots {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition available = lock.newCondition();
+        private int inUse = 0;
+
+        void acquire() throws InterruptedException {
+            // Initializes the pool outside the lock on first use
+            DatabaseConnectionManager.getMaximumPoolSize();
+            lock.lockInterruptibly();
+            try {
+                while (inUse >= DatabaseConnectionManager.getMaximumPoolSize()) {
+                    available.await();
+                }
+                inUse++;
+                if (inUse < DatabaseConnectionManager.getMaximumPoolSize()) {
+                    // The pool may have grown; let the next waiter check as well
+                    available.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                inUse--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.jdbc.crud;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Hands log records to a bounded ring buffer and writes them to the target handler
+ * from a single background thread, so logging threads never wait on the console.
+ * When the buffer is full the record is either dropped (and counted) or the caller
+ * blocks until there is room, depending on the overflow policy.
+ */
+public class AsyncLogHandler extends Handler {
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final int MAX_DRAIN = 256;
+
+    private final Handler target;
+    private final BlockingQueue<LogRecord> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong queued = new AtomicLong();
+    private final Object progress = new Object();
+    private long written = 0; // guarded by progress
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    public AsyncLogHandler(Handler target, int capacity, OverflowPolicy overflowPolicy) {
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.writer = new Thread(this::writeLoop, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        if (closed) {
+            target.publish(record);
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (queue.offer(record)) {
+                queued.incrementAndGet();
+            } else {
+                dropped.increment();
+            }
+            return;
+        }
+        try {
+            queue.put(record);
+            queued.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<LogRecord> batch = new ArrayList<>(MAX_DRAIN);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                LogRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                try {
+                    for (LogRecord record : batch) {
+                        target.publish(record);
+                    }
+                    if (queue.isEmpty()) {
+                        target.flush();
+                    }
+                } finally {
+                    written(batch.size());
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // Keep draining until close() has been called and the queue is empty
+            } catch (RuntimeException e) {
+                reportError("Async log writer failed", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    private void written(int count) {
+        synchronized (progress) {
+            written += count;
+            progress.notifyAll();
+        }
+    }
+
+    /**
+     * Waits up to a second for the records queued so far to be written, then flushes
+     * the target. The writer wakes the waiting thread after each batch it writes.
+     */
+    @Override
+    public void flush() {
+        long goal = queued.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        synchronized (progress) {
+            long remaining;
+            while (written < goal && writer.isAlive() && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        target.flush();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+    }
+
+    /** Number of records discarded because the buffer was full. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+}
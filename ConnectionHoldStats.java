@@ -0,0 +1,75 @@
+package com.jdbc.crud;
+
+/**
+ * Point-in-time summary of traced connection checkouts for one call-site, or for all
+ * traced connections. Times are in milliseconds; hold time splits into time inside
+ * the database and time in the application, part of which is idle in transaction.
+ */
+public class ConnectionHoldStats {
+    private final String callSite;
+    private final long count;
+    private final long statements;
+    private final double meanHoldMillis;
+    private final double p99HoldMillis;
+    private final double maxHoldMillis;
+    private final double totalHoldMillis;
+    private final double totalInDatabaseMillis;
+    private final double totalIdleInTransactionMillis;
+
+    ConnectionHoldStats(String callSite, LatencyHistogram hold, long inDatabaseNanos, long idleInTransactionNanos,
+                        long statements) {
+        this.callSite = callSite;
+        this.count = hold.getCount();
+        this.statements = statements;
+        this.meanHoldMillis = hold.getMeanNanos() / 1_000_000.0;
+        this.p99HoldMillis = hold.getValueAtQuantile(0.99) / 1_000_000.0;
+        this.maxHoldMillis = hold.getMaxNanos() / 1_000_000.0;
+        this.totalHoldMillis = hold.getTotalNanos() / 1_000_000.0;
+        this.totalInDatabaseMillis = inDatabaseNanos / 1_000_000.0;
+        this.totalIdleInTransactionMillis = idleInTransactionNanos / 1_000_000.0;
+    }
+
+    public String getCallSite() {
+        return callSite;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public double getMeanHoldMillis() {
+        return meanHoldMillis;
+    }
+
+    public double getP99HoldMillis() {
+        return p99HoldMillis;
+    }
+
+    public double getMaxHoldMillis() {
+        return maxHoldMillis;
+    }
+
+    public double getTotalHoldMillis() {
+        return totalHoldMillis;
+    }
+
+    public double getTotalInDatabaseMillis() {
+        return totalInDatabaseMillis;
+    }
+
+    public double getTotalIdleInTransactionMillis() {
+        return totalIdleInTransactionMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s count=%d statements=%d hold mean=%.2fms p99=%.2fms max=%.2fms "
+                + "total=%.1fms in-db=%.1fms idle-in-tx=%.1fms",
+            callSite, count, statements, meanHoldMillis, p99HoldMillis, maxHoldMillis, totalHoldMillis,
+            totalInDatabaseMillis, totalIdleInTransactionMillis);
+    }
+}
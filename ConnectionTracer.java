@@ -0,0 +1,329 @@
+package com.jdbc.crud;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Traces what happens to a pooled connection between acquire and release, enabled
+ * with DB_CONNECTION_TRACE. Each connection is split into time inside the database
+ * (statement execution, result set fetches, commit and rollback) and the rest of the
+ * hold time. The part of that rest spent inside an open transaction, after its first
+ * statement, is idle-in-transaction time: the connection is pinned but the database
+ * is waiting on the application. One in DB_CONNECTION_TRACE_SAMPLE acquisitions
+ * (default 100) also records the call-site, the first caller outside this library,
+ * and totals are kept per call-site. Releases held at least DB_CONNECTION_TRACE_LOG_MS
+ * (default 5000, the leak detection default) are logged with the breakdown.
+ */
+final class ConnectionTracer {
+    private static final Logger logger = Logger.getLogger(ConnectionTracer.class.getName());
+    private static final String ALL = "<all connections>";
+    private static final String PACKAGE_PREFIX = ConnectionTracer.class.getPackageName() + ".";
+    private static final int MAX_CALL_SITES = 500;
+
+    private static final boolean enabled = DatabaseConnectionManager.getEnvBoolean("DB_CONNECTION_TRACE", false);
+    private static final int sampleEvery =
+        Math.max(1, DatabaseConnectionManager.getEnvInt("DB_CONNECTION_TRACE_SAMPLE", 100));
+    private static final long logThresholdNanos =
+        TimeUnit.MILLISECONDS.toNanos(DatabaseConnectionManager.getEnvInt("DB_CONNECTION_TRACE_LOG_MS", 5000));
+    private static final AtomicLong acquisitions = new AtomicLong();
+    private static final Totals all = new Totals(ALL);
+    private static final Map<String, Totals> byCallSite = new ConcurrentHashMap<>();
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    private ConnectionTracer() {
+        // Private constructor to prevent instantiation
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the connection wrapped for tracing, or unchanged when tracing is off.
+     */
+    static Connection trace(Connection conn) throws SQLException {
+        if (!enabled) {
+            return conn;
+        }
+        String callSite = acquisitions.getAndIncrement() % sampleEvery == 0 ? callSite() : null;
+        ConnectionHandler handler = new ConnectionHandler(conn, callSite);
+        Connection proxy = (Connection) Proxy.newProxyInstance(ConnectionTracer.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, handler);
+        handler.proxy = proxy;
+        return proxy;
+    }
+
+    /**
+     * All traced connections first, then the sampled call-sites by total
+     * idle-in-transaction time, highest first.
+     */
+    static List<ConnectionHoldStats> report() {
+        List<ConnectionHoldStats> stats = new ArrayList<>();
+        byCallSite.values().forEach(totals -> stats.add(totals.snapshot()));
+        stats.sort(Comparator.comparingDouble(ConnectionHoldStats::getTotalIdleInTransactionMillis).reversed());
+        stats.add(0, all.snapshot());
+        return stats;
+    }
+
+    static void reset() {
+        all.reset();
+        byCallSite.clear();
+    }
+
+    private static String callSite() {
+        StackWalker walker = StackWalker.getInstance();
+        Optional<StackWalker.StackFrame> frame = walker.walk(frames ->
+            frames.filter(f -> !f.getClassName().startsWith(PACKAGE_PREFIX)).findFirst());
+        if (frame.isEmpty()) {
+            // Caller lives in this package too; skip only the connection plumbing
+            frame = walker.walk(frames -> frames.filter(f -> !isPlumbing(f.getClassName())).findFirst());
+        }
+        return frame.map(f -> f.toStackTraceElement().toString()).orElse("<unknown>");
+    }
+
+    private static boolean isPlumbing(String className) {
+        return className.startsWith(ConnectionTracer.class.getName())
+            || className.startsWith(DatabaseConnectionManager.class.getName())
+            || className.startsWith(CrudOperations.class.getName());
+    }
+
+    private static void released(ConnectionHandler trace, long holdNanos) {
+        all.record(trace, holdNanos);
+        if (trace.callSite != null) {
+            Totals totals = byCallSite.get(trace.callSite);
+            if (totals == null && byCallSite.size() < MAX_CALL_SITES) {
+                totals = byCallSite.computeIfAbsent(trace.callSite, Totals::new);
+            }
+            if (totals != null) {
+                totals.record(trace, holdNanos);
+            }
+        }
+        if (logThresholdNanos > 0 && holdNanos >= logThresholdNanos && logger.isLoggable(Level.WARNING)) {
+            logger.log(Level.WARNING, "Connection held {0} ms ({1} ms in database, {2} ms idle in transaction, "
+                + "{3} statements) by {4}", new Object[]{
+                    TimeUnit.NANOSECONDS.toMillis(holdNanos), TimeUnit.NANOSECONDS.toMillis(trace.dbNanos),
+                    TimeUnit.NANOSECONDS.toMillis(trace.idleInTransactionNanos), trace.statements,
+                    trace.callSite != null ? trace.callSite : "a caller that was not sampled"});
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Lifecycle of one checkout. A connection is used by one thread at a time, so the
+     * counters are plain fields; the pool hand-off orders them between threads.
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final String callSite;
+        private final long acquiredNanos = System.nanoTime();
+        private Connection proxy;
+        private boolean autoCommit;
+        private boolean released;
+        private long transactionStartNanos;
+        private long transactionDbNanos;
+        private long dbNanos;
+        private long idleInTransactionNanos;
+        private long statements;
+
+        ConnectionHandler(Connection target, String callSite) throws SQLException {
+            this.target = target;
+            this.callSite = callSite;
+            this.autoCommit = target.getAutoCommit();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                case "prepareCall":
+                case "createStatement":
+                    Object statement = ConnectionTracer.invoke(target, method, args);
+                    return Proxy.newProxyInstance(ConnectionTracer.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler(this, (Statement) statement));
+                case "commit":
+                    return endTransaction(method, args);
+                case "rollback":
+                    // Rolling back to a savepoint keeps the transaction open
+                    return args == null ? endTransaction(method, args) : timed(method, args, false);
+                case "setAutoCommit":
+                    boolean enable = (Boolean) args[0];
+                    Object result = enable && !autoCommit
+                        ? endTransaction(method, args)
+                        : ConnectionTracer.invoke(target, method, args);
+                    autoCommit = enable;
+                    return result;
+                case "close":
+                    if (!released) {
+                        released = true;
+                        long now = System.nanoTime();
+                        closeTransaction(now);
+                        released(this, now - acquiredNanos);
+                    }
+                    return ConnectionTracer.invoke(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return ConnectionTracer.invoke(target, method, args);
+            }
+        }
+
+        private Object endTransaction(Method method, Object[] args) throws Throwable {
+            closeTransaction(System.nanoTime());
+            return timed(method, args, false);
+        }
+
+        private void closeTransaction(long now) {
+            if (transactionStartNanos != 0) {
+                idleInTransactionNanos += Math.max(0, now - transactionStartNanos - transactionDbNanos);
+                transactionStartNanos = 0;
+                transactionDbNanos = 0;
+            }
+        }
+
+        private Object timed(Method method, Object[] args, boolean statement) throws Throwable {
+            return timed(target, method, args, statement);
+        }
+
+        Object timed(Object on, Method method, Object[] args, boolean statement) throws Throwable {
+            long start = System.nanoTime();
+            if (statement) {
+                statements++;
+                if (!autoCommit && transactionStartNanos == 0) {
+                    transactionStartNanos = start;
+                }
+            }
+            try {
+                return ConnectionTracer.invoke(on, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                dbNanos += elapsed;
+                if (transactionStartNanos != 0) {
+                    transactionDbNanos += elapsed;
+                }
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final ConnectionHandler connection;
+        private final Statement target;
+
+        StatementHandler(ConnectionHandler connection, Statement target) {
+            this.connection = connection;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                Object result = connection.timed(target, method, args, true);
+                return result instanceof ResultSet ? wrap((ResultSet) result) : result;
+            }
+            switch (name) {
+                case "getResultSet":
+                case "getGeneratedKeys":
+                    Object resultSet = ConnectionTracer.invoke(target, method, args);
+                    return resultSet != null ? wrap((ResultSet) resultSet) : null;
+                case "getConnection":
+                    return connection.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return ConnectionTracer.invoke(target, method, args);
+            }
+        }
+
+        private ResultSet wrap(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(ConnectionTracer.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new ResultSetHandler(connection, resultSet));
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ConnectionHandler connection;
+        private final ResultSet target;
+
+        ResultSetHandler(ConnectionHandler connection, ResultSet target) {
+            this.connection = connection;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    // Fetching the next batch of rows happens here
+                    return connection.timed(target, method, args, false);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return ConnectionTracer.invoke(target, method, args);
+            }
+        }
+    }
+
+    private static final class Totals {
+        private final String callSite;
+        private final LatencyHistogram hold = new LatencyHistogram();
+        private final LongAdder dbNanos = new LongAdder();
+        private final LongAdder idleInTransactionNanos = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+
+        Totals(String callSite) {
+            this.callSite = callSite;
+        }
+
+        void record(ConnectionHandler trace, long holdNanos) {
+            hold.record(holdNanos);
+            dbNanos.add(trace.dbNanos);
+            idleInTransactionNanos.add(trace.idleInTransactionNanos);
+            statements.add(trace.statements);
+        }
+
+        void reset() {
+            hold.reset();
+            dbNanos.reset();
+            idleInTransactionNanos.reset();
+            statements.reset();
+        }
+
+        ConnectionHoldStats snapshot() {
+            return new ConnectionHoldStats(callSite, hold, dbNanos.sum(), idleInTransactionNanos.sum(),
+                statements.sum());
+        }
+    }
+}
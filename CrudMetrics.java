@@ -0,0 +1,226 @@
+package com.jdbc.crud;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide latency and pool metrics. Operation latencies are kept per operation
+ * and table; recording an already seen combination does not allocate. The same data
+ * is available from {@link #getOperationStats()} / {@link #getPoolStats()} /
+ * {@link #getTopStatements(int)} and over JMX as {@code com.jdbc.crud:type=CrudMetrics}.
+ */
+public final class CrudMetrics {
+    public enum Operation {
+        CREATE, CREATE_BATCH, CREATE_MULTI_ROW, UPSERT, READ, READ_PAGE, STREAM, UPDATE, DELETE, JOIN, CALL,
+        GROUP_COMMIT
+    }
+
+    private static final Logger logger = Logger.getLogger(CrudMetrics.class.getName());
+    private static final String MBEAN_NAME = "com.jdbc.crud:type=CrudMetrics";
+
+    private static final Map<Operation, Map<String, LatencyHistogram>> operations = new EnumMap<>(Operation.class);
+    private static final Map<String, PoolTracker> pools = new ConcurrentHashMap<>();
+
+    static {
+        LoggerUtil.configureLogger(logger);
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new ConcurrentHashMap<>());
+        }
+        registerMBean();
+    }
+
+    private CrudMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void record(Operation operation, String table, long startNanos, long rows, boolean failed) {
+        histogram(operation, table).record(System.nanoTime() - startNanos, rows, failed);
+    }
+
+    /**
+     * Records the operation and the statement it ran, for the per-statement
+     * statistics and the slow-query log. The parameters are only read when the
+     * statement is slow and gets explained, on the pool it ran on (null for the
+     * primary and its replicas).
+     */
+    static void record(Operation operation, String table, String pool, String sql, Object[] params,
+                       long startNanos, long rows, boolean failed) {
+        long nanos = System.nanoTime() - startNanos;
+        histogram(operation, table).record(nanos, rows, failed);
+        if (sql != null) {
+            StatementStatistics.record(pool, sql, params, nanos, rows, failed);
+        }
+    }
+
+    private static LatencyHistogram histogram(Operation operation, String table) {
+        Map<String, LatencyHistogram> byTable = operations.get(operation);
+        String key = table != null ? table : "";
+        LatencyHistogram histogram = byTable.get(key);
+        if (histogram == null) {
+            histogram = byTable.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    public static List<OperationStats> getOperationStats() {
+        List<OperationStats> stats = new ArrayList<>();
+        operations.forEach((operation, byTable) -> byTable.forEach((table, histogram) ->
+            stats.add(new OperationStats(operation.name(), table, histogram))));
+        return stats;
+    }
+
+    public static List<PoolMetricsSnapshot> getPoolStats() {
+        List<PoolMetricsSnapshot> stats = new ArrayList<>();
+        pools.forEach((poolName, tracker) -> stats.add(tracker.snapshot()));
+        return stats;
+    }
+
+    /**
+     * The statements with the highest total time, highest first. Statements are
+     * grouped by fingerprint: literals replaced with {@code ?} and placeholder lists
+     * collapsed.
+     */
+    public static List<StatementStats> getTopStatements(int limit) {
+        return StatementStatistics.top(limit);
+    }
+
+    /**
+     * Connection hold times from DB_CONNECTION_TRACE: all traced connections first,
+     * then the sampled call-sites with the most idle-in-transaction time. Empty when
+     * tracing is off.
+     */
+    public static List<ConnectionHoldStats> getConnectionHoldStats() {
+        return ConnectionTracer.isEnabled() ? ConnectionTracer.report() : new ArrayList<>();
+    }
+
+    public static void reset() {
+        operations.values().forEach(byTable -> byTable.values().forEach(LatencyHistogram::reset));
+        pools.values().forEach(PoolTracker::reset);
+        StatementStatistics.reset();
+        ConnectionTracer.reset();
+    }
+
+    /**
+     * Factory to install on a HikariConfig so the pool reports acquire, usage and
+     * creation times and timeouts into this registry.
+     */
+    public static MetricsTrackerFactory metricsTrackerFactory() {
+        return PoolTracker::new;
+    }
+
+    /** Connection acquire times of the named pool, or null if it is not tracked. */
+    static LatencyHistogram getAcquireHistogram(String poolName) {
+        PoolTracker tracker = pools.get(poolName);
+        return tracker != null ? tracker.acquire : null;
+    }
+
+    /** Connection timeouts of the named pool since startup or the last reset. */
+    static long getTimeoutCount(String poolName) {
+        PoolTracker tracker = pools.get(poolName);
+        return tracker != null ? tracker.timeouts.sum() : 0;
+    }
+
+    private static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsBean(), name);
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not register metrics MBean", e);
+        }
+    }
+
+    private static final class MetricsBean implements CrudMetricsMXBean {
+        @Override
+        public List<OperationStats> getOperationStats() {
+            return CrudMetrics.getOperationStats();
+        }
+
+        @Override
+        public List<PoolMetricsSnapshot> getPoolStats() {
+            return CrudMetrics.getPoolStats();
+        }
+
+        @Override
+        public List<StatementStats> getTopStatements(int limit) {
+            return CrudMetrics.getTopStatements(limit);
+        }
+
+        @Override
+        public List<ConnectionHoldStats> getConnectionHoldStats() {
+            return CrudMetrics.getConnectionHoldStats();
+        }
+
+        @Override
+        public void reset() {
+            CrudMetrics.reset();
+        }
+    }
+
+    private static final class PoolTracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final LatencyHistogram acquire = new LatencyHistogram();
+        private final LatencyHistogram usage = new LatencyHistogram();
+        private final LatencyHistogram creation = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+
+        PoolTracker(String poolName, PoolStats poolStats) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+            pools.put(poolName, this);
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            creation.record(TimeUnit.MILLISECONDS.toNanos(connectionCreatedMillis));
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquire.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        @Override
+        public void close() {
+            pools.remove(poolName, this);
+        }
+
+        PoolMetricsSnapshot snapshot() {
+            return new PoolMetricsSnapshot(poolName, poolStats, acquire, usage, creation, timeouts.sum());
+        }
+
+        void reset() {
+            acquire.reset();
+            usage.reset();
+            creation.reset();
+            timeouts.reset();
+        }
+    }
+}
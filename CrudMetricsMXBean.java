@@ -0,0 +1,15 @@
+package com.jdbc.crud;
+
+import java.util.List;
+
+public interface CrudMetricsMXBean {
+    List<OperationStats> getOperationStats();
+
+    List<PoolMetricsSnapshot> getPoolStats();
+
+    List<StatementStats> getTopStatements(int limit);
+
+    List<ConnectionHoldStats> getConnectionHoldStats();
+
+    void reset();
+}
@@ -4,71 +4,156 @@ import com.jdbc.crud.CrudException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.CallableStatement;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 import com.jdbc.crud.LoggerUtil;
 
 public class CrudOperations {
     private static final Logger logger = Logger.getLogger(CrudOperations.class.getName());
-    private Connection transactionConnection = null;
-    private boolean inTransaction = false;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    private static final Object[] NO_PARAMS = new Object[0];
+    private static final int DEFAULT_SQL_CACHE_SIZE = 256;
+    // IN-list sizes for writes by key; 512 stays below Oracle's limit of 1000 list items
+    private static final int[] KEY_BUCKETS = {1, 4, 16, 64, 256, 512};
+    private static final int KEY_ARRAY_CHUNK = 10_000;
+    private static final SqlTemplateCache sqlTemplateCache = new SqlTemplateCache(DEFAULT_SQL_CACHE_SIZE);
+    private static volatile QueryResultCache resultCache = null;
+    // Bound to the calling thread so one instance can run independent transactions
+    // on many threads, including virtual threads
+    private final ThreadLocal<TransactionState> transaction = new ThreadLocal<>();
+    // Null for the primary pool and its read replicas
+    private final String poolName;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
 
     static {
         LoggerUtil.configureLogger(logger);
     }
 
+    /**
+     * Operations on the primary pool, with reads outside transactions going to the
+     * read replicas when there are any.
+     */
+    public CrudOperations() {
+        this(null);
+    }
+
+    /**
+     * Operations on the named pool registered with
+     * {@link DatabaseConnectionManager#addPool}; reads and writes both use it.
+     */
+    public CrudOperations(String poolName) {
+        this.poolName = poolName;
+    }
+
+    /** The named pool these operations use, or null for the primary pool. */
+    public String getPoolName() {
+        return poolName;
+    }
+
     public void beginTransaction() throws SQLException {
-        if (inTransaction) {
+        if (transaction.get() != null) {
             throw new SQLException("Transaction already in progress");
         }
-        transactionConnection = DatabaseConnectionManager.getConnection();
-        transactionConnection.setAutoCommit(false);
-        inTransaction = true;
+        Connection conn = poolConnection(false);
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            DatabaseConnectionManager.closeConnection(conn);
+            throw e;
+        }
+        transaction.set(new TransactionState(conn));
         logger.log(Level.INFO, "Transaction started");
     }
 
     public void commitTransaction() throws SQLException {
-        if (!inTransaction || transactionConnection == null) {
+        TransactionState state = transaction.get();
+        if (state == null) {
             throw new SQLException("No active transaction to commit");
         }
         try {
-            transactionConnection.commit();
+            state.connection.commit();
+            applyPendingInvalidations(state);
             logger.log(Level.INFO, "Transaction committed successfully");
         } finally {
-            cleanupTransaction();
+            cleanupTransaction(state);
         }
     }
 
     public void rollbackTransaction() {
-        if (inTransaction && transactionConnection != null) {
+        TransactionState state = transaction.get();
+        if (state != null) {
             try {
-                transactionConnection.rollback();
+                state.connection.rollback();
                 logger.log(Level.INFO, "Transaction rolled back");
             } catch (SQLException e) {
                 logger.log(Level.SEVERE, "Error during transaction rollback", e);
             } finally {
-                cleanupTransaction();
+                cleanupTransaction(state);
             }
         }
     }
 
-    private void cleanupTransaction() {
-        if (transactionConnection != null) {
-            try {
-                transactionConnection.setAutoCommit(true);
-                DatabaseConnectionManager.closeConnection(transactionConnection);
-            } catch (SQLException e) {
-                logger.log(Level.WARNING, "Error cleaning up transaction", e);
-            }
-            transactionConnection = null;
-            inTransaction = false;
+    /** Whether the calling thread has an open transaction on this instance. */
+    public boolean isInTransaction() {
+        return transaction.get() != null;
+    }
+
+    /**
+     * Runs the work in a transaction on the calling thread and commits it when the
+     * work returns, or rolls it back when the work throws. The connection is returned
+     * to the pool either way. When the thread already has a transaction open the work
+     * simply joins it, and the outer caller decides the outcome.
+     */
+    public <T> T inTransaction(Function<CrudOperations, T> work) {
+        if (isInTransaction()) {
+            return work.apply(this);
+        }
+        try {
+            beginTransaction();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to begin transaction", e);
+            throw new CrudException("Failed to begin transaction: " + e.getMessage(), e);
+        }
+        T result;
+        try {
+            result = work.apply(this);
+        } catch (RuntimeException | Error e) {
+            rollbackTransaction();
+            throw e;
+        }
+        try {
+            commitTransaction();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to commit transaction", e);
+            throw new CrudException("Failed to commit transaction: " + e.getMessage(), e);
+        }
+        return result;
+    }
+
+    private void cleanupTransaction(TransactionState state) {
+        transaction.remove();
+        try {
+            state.connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error cleaning up transaction", e);
+        } finally {
+            DatabaseConnectionManager.closeConnection(state.connection);
         }
     }
 
@@ -78,72 +163,487 @@ public class CrudOperations {
             throw new IllegalArgumentException("Columns and values must be non-null and of equal length");
         }
 
-        StringBuilder sql = new StringBuilder("INSERT INTO ")
-            .append(tableName)
-            .append(" (")
-            .append(String.join(", ", columns))
-            .append(") VALUES (")
-            .append("?, ".repeat(columns.length))
-            .delete(sql.length() - 2, sql.length()) // Remove last comma and space
-            .append(")");
+        String sql = buildInsertQuery(tableName, columns);
 
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
         Connection conn = getConnection();
-        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             for (int i = 0; i < values.length; i++) {
                 pstmt.setObject(i + 1, values[i]);
             }
             
             int rowsAffected = pstmt.executeUpdate();
-            logger.log(Level.INFO, "Successfully created record in table {0}. Rows affected: {1}", 
-                new Object[]{tableName, rowsAffected});
+            rowCount = rowsAffected;
+            failed = false;
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully created record in table {0}. Rows affected: {1}", 
+                    new Object[]{tableName, rowsAffected});
+            }
         } catch (SQLException e) {
             handleSQLException(e);
             throw new CrudException("Failed to create record: " + e.getMessage(), e);
         } finally {
-            if (!inTransaction) {
+            if (!isInTransaction()) {
+                DatabaseConnectionManager.closeConnection(conn);
+            }
+            CrudMetrics.record(CrudMetrics.Operation.CREATE, tableName, poolName, sql, null, start, rowCount, failed);
+            invalidateCachedResults(tableName);
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts many rows through a single PreparedStatement, sending them to the
+     * database in chunks of {@link #getBatchSize()} rows via addBatch/executeBatch.
+     * Outside a transaction one pooled connection is used for the whole load and
+     * each chunk is committed as soon as it has been executed; inside a transaction
+     * the rows become part of it and nothing is committed here.
+     *
+     * @return the number of rows affected by each chunk, in execution order
+     */
+    public int[] createRecords(String tableName, String[] columns, Iterable<Object[]> rows) {
+        if (columns == null || columns.length == 0 || rows == null) {
+            logger.log(Level.SEVERE, "Columns and rows must be non-null");
+            throw new IllegalArgumentException("Columns and rows must be non-null");
+        }
+
+        String sql = buildInsertQuery(tableName, columns);
+        List<Integer> chunkCounts = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
+        Connection conn = getConnection();
+        boolean restoreAutoCommit = false;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (!isInTransaction() && conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+
+            int pending = 0;
+            for (Object[] values : rows) {
+                if (values == null || values.length != columns.length) {
+                    throw new IllegalArgumentException("Each row must have exactly " + columns.length + " values");
+                }
+                for (int i = 0; i < values.length; i++) {
+                    pstmt.setObject(i + 1, values[i]);
+                }
+                pstmt.addBatch();
+                if (++pending == batchSize) {
+                    chunkCounts.add(executeChunk(conn, pstmt));
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                chunkCounts.add(executeChunk(conn, pstmt));
+            }
+
+            int[] result = chunkCounts.stream().mapToInt(Integer::intValue).toArray();
+            rowCount = Arrays.stream(result).sum();
+            failed = false;
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully created records in table {0}. Chunks: {1}, rows affected: {2}",
+                    new Object[]{tableName, result.length, rowCount});
+            }
+            return result;
+        } catch (SQLException e) {
+            if (!isInTransaction()) {
+                rollbackQuietly(conn);
+            }
+            handleSQLException(e);
+            throw new CrudException("Failed to create records: " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            if (!isInTransaction()) {
+                rollbackQuietly(conn);
+            }
+            logger.log(Level.SEVERE, e.getMessage());
+            throw e;
+        } finally {
+            if (!isInTransaction()) {
+                if (restoreAutoCommit) {
+                    try {
+                        conn.setAutoCommit(true);
+                    } catch (SQLException e) {
+                        logger.log(Level.WARNING, "Error restoring auto-commit", e);
+                    }
+                }
+                DatabaseConnectionManager.closeConnection(conn);
+            }
+            CrudMetrics.record(CrudMetrics.Operation.CREATE_BATCH, tableName, poolName, sql, null,
+                start, rowCount, failed);
+            invalidateCachedResults(tableName);
+        }
+    }
+
+    /**
+     * Inserts rows with multi-row {@code INSERT ... VALUES (...), (...)} statements, for
+     * drivers that would otherwise send batched rows one at a time. Each statement
+     * carries at most {@link #getBatchSize()} rows and stays under the dialect's
+     * bind-parameter limit. Outside a transaction every statement commits on its own.
+     *
+     * @return the number of rows affected by each statement, in execution order
+     */
+    public int[] createRecordsMultiRow(String tableName, String[] columns, Iterable<Object[]> rows) {
+        return writeMultiRow(tableName, columns, null, rows);
+    }
+
+    /**
+     * Inserts rows or updates the existing rows with the same key, in one round trip
+     * per chunk, using the dialect's native syntax (ON DUPLICATE KEY UPDATE, ON
+     * CONFLICT, MERGE). Key columns must be part of {@code columns} and backed by a
+     * primary key or unique constraint, and a key should occur only once per call.
+     * Row counts are as reported by the driver; MySQL counts an updated row twice.
+     *
+     * @return the number of rows affected by each statement, in execution order
+     */
+    public int[] upsertRecords(String tableName, String[] columns, String[] keyColumns, Iterable<Object[]> rows) {
+        if (keyColumns == null || keyColumns.length == 0
+                || !Arrays.asList(columns != null ? columns : new String[0]).containsAll(Arrays.asList(keyColumns))) {
+            logger.log(Level.SEVERE, "Key columns must be non-empty and part of the columns");
+            throw new IllegalArgumentException("Key columns must be non-empty and part of the columns");
+        }
+        Dialect dialect = dialect();
+        if (!dialect.supportsUpsert()) {
+            throw new UnsupportedOperationException("Upsert is not supported for dialect " + dialect);
+        }
+        return writeMultiRow(tableName, columns, keyColumns, rows);
+    }
+
+    private int[] writeMultiRow(String tableName, String[] columns, String[] keyColumns, Iterable<Object[]> rows) {
+        if (columns == null || columns.length == 0 || rows == null) {
+            logger.log(Level.SEVERE, "Columns and rows must be non-null");
+            throw new IllegalArgumentException("Columns and rows must be non-null");
+        }
+        Dialect dialect = dialect();
+        int rowsPerStatement = Math.max(1, Math.min(Math.min(batchSize, dialect.getMaxRowsPerStatement()),
+            dialect.getMaxBindParameters() / columns.length));
+        CrudMetrics.Operation operation = keyColumns == null
+            ? CrudMetrics.Operation.CREATE_MULTI_ROW
+            : CrudMetrics.Operation.UPSERT;
+
+        List<Integer> statementCounts = new ArrayList<>();
+        List<Object[]> chunk = new ArrayList<>(rowsPerStatement);
+        String fullChunkSql = null;
+        String sql = null;
+
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
+        Connection conn = getConnection();
+        try {
+            for (Object[] values : rows) {
+                if (values == null || values.length != columns.length) {
+                    throw new IllegalArgumentException("Each row must have exactly " + columns.length + " values");
+                }
+                chunk.add(values);
+                if (chunk.size() == rowsPerStatement) {
+                    if (fullChunkSql == null) {
+                        fullChunkSql = multiRowSql(dialect, tableName, columns, keyColumns, rowsPerStatement);
+                    }
+                    sql = fullChunkSql;
+                    statementCounts.add(executeMultiRow(conn, fullChunkSql, chunk));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                sql = multiRowSql(dialect, tableName, columns, keyColumns, chunk.size());
+                statementCounts.add(executeMultiRow(conn, sql, chunk));
+            }
+
+            int[] result = statementCounts.stream().mapToInt(Integer::intValue).toArray();
+            rowCount = Arrays.stream(result).sum();
+            failed = false;
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully wrote records to table {0}. Statements: {1}, rows affected: {2}",
+                    new Object[]{tableName, result.length, rowCount});
+            }
+            return result;
+        } catch (SQLException e) {
+            handleSQLException(e);
+            throw new CrudException("Failed to write records: " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, e.getMessage());
+            throw e;
+        } finally {
+            if (!isInTransaction()) {
                 DatabaseConnectionManager.closeConnection(conn);
             }
+            CrudMetrics.record(operation, tableName, poolName, sql, null, start, rowCount, failed);
+            invalidateCachedResults(tableName);
+        }
+    }
+
+    private String multiRowSql(Dialect dialect, String tableName, String[] columns, String[] keyColumns,
+                               int rowCount) {
+        return keyColumns == null
+            ? dialect.multiRowInsert(tableName, columns, rowCount)
+            : dialect.multiRowUpsert(tableName, columns, keyColumns, rowCount);
+    }
+
+    private int executeMultiRow(Connection conn, String sql, List<Object[]> chunk) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (Object[] values : chunk) {
+                for (Object value : values) {
+                    pstmt.setObject(index++, value);
+                }
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private int executeChunk(Connection conn, PreparedStatement pstmt) throws SQLException {
+        int rowsAffected = 0;
+        for (int count : pstmt.executeBatch()) {
+            // Some drivers only report that a batched statement succeeded
+            rowsAffected += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        if (!isInTransaction()) {
+            conn.commit();
+        }
+        return rowsAffected;
+    }
+
+    private void rollbackQuietly(Connection conn) {
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error rolling back batch", e);
         }
     }
 
     public List<Map<String, Object>> readRecords(String tableName, String[] columns, String whereClause) {
-        String sql = buildSelectQuery(tableName, columns, whereClause);
+        return readRecords(tableName, columns, whereClause, NO_PARAMS);
+    }
+
+    /**
+     * Reads records using a parameterized where clause, e.g. {@code "email = ?"}, so
+     * that every call shares one statement text and the driver and server caches hit.
+     */
+    public List<Map<String, Object>> readRecords(String tableName, String[] columns, String whereClause,
+                                                 Object... whereParams) {
+        String sql = buildSelectQuery(tableName, columns, whereClause, whereParams);
+        QueryResultCache cache = resultCache;
+        long[] cacheStamp = null;
+        if (cache != null && !isInTransaction() && cache.isCacheable(tableName)) {
+            List<Map<String, Object>> cached = cache.get(poolName, sql, whereParams);
+            if (cached != null) {
+                return cached;
+            }
+            cacheStamp = cache.stamp(poolName, tableName);
+        }
         List<Map<String, Object>> results = new ArrayList<>();
         
-        Connection conn = getConnection();
-        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
+        Connection conn = getReadConnection();
+        try (PreparedStatement pstmt = prepareStatement(conn, sql, 0, whereParams);
              ResultSet rs = pstmt.executeQuery()) {
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
+            RowSchema schema = RowSchema.from(rs.getMetaData());
             while (rs.next()) {
-                Map<String, Object> row = new HashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.put(metaData.getColumnName(i), rs.getObject(i));
-                }
-                results.add(row);
+                results.add(Row.read(schema, rs));
             }
+            rowCount = results.size();
+            failed = false;
             
-            logger.log(Level.INFO, "Successfully read {0} records from table {1}", 
-                new Object[]{results.size(), tableName});
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully read {0} records from table {1}", 
+                    new Object[]{results.size(), tableName});
+            }
+            if (cacheStamp != null) {
+                cache.put(poolName, sql, whereParams, new String[]{tableName}, cacheStamp, results);
+            }
+            return results;
+        } catch (SQLException e) {
+            handleSQLException(e);
+            throw new CrudException("Failed to read records: " + e.getMessage(), e);
+        } finally {
+            if (!isInTransaction()) {
+                DatabaseConnectionManager.closeConnection(conn);
+            }
+            CrudMetrics.record(CrudMetrics.Operation.READ, tableName, poolName, sql, whereParams,
+                start, rowCount, failed);
+        }
+    }
+
+    public <T> List<T> readRecords(String tableName, String[] columns, String whereClause, Class<T> type) {
+        return readRecords(tableName, columns, whereClause, type, NO_PARAMS);
+    }
+
+    /**
+     * Reads records as instances of a record class or bean, matching columns to
+     * properties by name. Typed reads bypass the result cache.
+     */
+    public <T> List<T> readRecords(String tableName, String[] columns, String whereClause, Class<T> type,
+                                   Object... whereParams) {
+        String sql = buildSelectQuery(tableName, columns, whereClause, whereParams);
+        List<T> results = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
+        Connection conn = getReadConnection();
+        try (PreparedStatement pstmt = prepareStatement(conn, sql, 0, whereParams);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            TypedRowMapper<T> mapper = TypedRowMapper.forType(type, rs.getMetaData());
+            while (rs.next()) {
+                results.add(mapper.map(rs));
+            }
+            rowCount = results.size();
+            failed = false;
+
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully read {0} records from table {1}",
+                    new Object[]{results.size(), tableName});
+            }
             return results;
         } catch (SQLException e) {
             handleSQLException(e);
             throw new CrudException("Failed to read records: " + e.getMessage(), e);
         } finally {
-            if (!inTransaction) {
+            if (!isInTransaction()) {
                 DatabaseConnectionManager.closeConnection(conn);
             }
+            CrudMetrics.record(CrudMetrics.Operation.READ, tableName, poolName, sql, whereParams,
+                start, rowCount, failed);
+        }
+    }
+
+    /**
+     * Prepares the statement and binds the where parameters after the first
+     * {@code offset} positions, which the caller fills in itself.
+     */
+    private PreparedStatement prepareStatement(Connection conn, String sql, int offset, Object[] whereParams)
+            throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        try {
+            bindParameters(pstmt, offset, whereParams);
+        } catch (SQLException e) {
+            pstmt.close();
+            throw e;
+        }
+        return pstmt;
+    }
+
+    private void bindParameters(PreparedStatement pstmt, int offset, Object[] params) throws SQLException {
+        if (params == null) {
+            return;
+        }
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(offset + i + 1, params[i]);
+        }
+    }
+
+    /**
+     * Installs a result cache in front of readRecords and executeJoinQuery for all
+     * instances, or removes it when null. Reads inside a transaction bypass the cache.
+     */
+    public static void setResultCache(QueryResultCache cache) {
+        resultCache = cache;
+    }
+
+    public static QueryResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Invalidates cached results for the table, or for every table when null. Inside
+     * a transaction this is deferred until commit and dropped on rollback.
+     */
+    private void invalidateCachedResults(String tableName) {
+        QueryResultCache cache = resultCache;
+        if (cache == null) {
+            return;
+        }
+        TransactionState state = transaction.get();
+        if (state != null) {
+            if (tableName == null) {
+                state.pendingInvalidateAll = true;
+            } else {
+                state.pendingInvalidations.add(tableName);
+            }
+        } else if (tableName == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(poolName, tableName);
+        }
+    }
+
+    private void applyPendingInvalidations(TransactionState state) {
+        QueryResultCache cache = resultCache;
+        if (cache == null) {
+            return;
+        }
+        if (state.pendingInvalidateAll) {
+            cache.invalidateAll();
+        } else {
+            state.pendingInvalidations.forEach(table -> cache.invalidate(poolName, table));
         }
     }
 
     private Connection getConnection() {
-        return inTransaction ? transactionConnection : DatabaseConnectionManager.getConnection();
+        TransactionState state = transaction.get();
+        if (state != null) {
+            return state.connection;
+        }
+        try {
+            return poolConnection(false);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to obtain connection from pool", e);
+            throw new CrudException("Failed to obtain connection: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads inside a transaction stay on the transaction connection so they see its
+     * uncommitted writes; all other reads may be served by a read replica.
+     */
+    private Connection getReadConnection() {
+        TransactionState state = transaction.get();
+        if (state != null) {
+            return state.connection;
+        }
+        try {
+            return poolConnection(true);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to obtain read connection from pool", e);
+            throw new CrudException("Failed to obtain connection: " + e.getMessage(), e);
+        }
+    }
+
+    private Connection poolConnection(boolean read) throws SQLException {
+        if (poolName != null) {
+            return DatabaseConnectionManager.getConnection(poolName);
+        }
+        return read ? DatabaseConnectionManager.getReadConnection() : DatabaseConnectionManager.getConnection();
+    }
+
+    private Dialect dialect() {
+        return poolName != null
+            ? DatabaseConnectionManager.getDialect(poolName)
+            : DatabaseConnectionManager.getDialect();
     }
 
     private void handleSQLException(SQLException e) throws CrudException {
-        if (inTransaction) {
+        if (isInTransaction()) {
             rollbackTransaction();
         }
         logger.log(Level.SEVERE, "SQL error occurred", e);
@@ -151,109 +651,505 @@ public class CrudOperations {
     }
 
     public void updateRecord(String tableName, String[] columns, Object[] values, String whereClause) {
+        updateRecord(tableName, columns, values, whereClause, NO_PARAMS);
+    }
+
+    /**
+     * Updates records using a parameterized where clause. The where parameters are
+     * bound after the SET values.
+     */
+    public void updateRecord(String tableName, String[] columns, Object[] values, String whereClause,
+                             Object... whereParams) {
         if (columns == null || values == null || columns.length != values.length) {
             logger.log(Level.SEVERE, "Columns and values must be non-null and of equal length");
             throw new IllegalArgumentException("Columns and values must be non-null and of equal length");
         }
 
-        StringBuilder sql = new StringBuilder("UPDATE ")
-            .append(tableName)
-            .append(" SET ")
-            .append(String.join(" = ?, ", columns))
-            .append(" = ?")
-            .append(" WHERE ")
-            .append(whereClause);
+        String sql = buildUpdateQuery(tableName, columns, whereClause, whereParams);
 
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
         Connection conn = getConnection();
-        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+        try (PreparedStatement pstmt = prepareStatement(conn, sql, values.length, whereParams)) {
             for (int i = 0; i < values.length; i++) {
                 pstmt.setObject(i + 1, values[i]);
             }
             
             int rowsAffected = pstmt.executeUpdate();
-            logger.log(Level.INFO, "Successfully updated record in table {0}. Rows affected: {1}", 
-                new Object[]{tableName, rowsAffected});
+            rowCount = rowsAffected;
+            failed = false;
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully updated record in table {0}. Rows affected: {1}", 
+                    new Object[]{tableName, rowsAffected});
+            }
         } catch (SQLException e) {
             handleSQLException(e);
             throw new CrudException("Failed to update record: " + e.getMessage(), e);
         } finally {
-            if (!inTransaction) {
+            if (!isInTransaction()) {
                 DatabaseConnectionManager.closeConnection(conn);
             }
+            CrudMetrics.record(CrudMetrics.Operation.UPDATE, tableName, poolName, sql, null, start, rowCount, failed);
+            invalidateCachedResults(tableName);
         }
     }
 
     public void deleteRecord(String tableName, String whereClause) {
-        String sql = "DELETE FROM " + tableName + " WHERE " + whereClause;
+        deleteRecord(tableName, whereClause, NO_PARAMS);
+    }
 
+    public void deleteRecord(String tableName, String whereClause, Object... whereParams) {
+        String sql = buildDeleteQuery(tableName, whereClause, whereParams);
+
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
         Connection conn = getConnection();
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = prepareStatement(conn, sql, 0, whereParams)) {
             int rowsAffected = pstmt.executeUpdate();
-            logger.log(Level.INFO, "Successfully deleted record from table {0}. Rows affected: {1}", 
-                new Object[]{tableName, rowsAffected});
+            rowCount = rowsAffected;
+            failed = false;
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully deleted record from table {0}. Rows affected: {1}", 
+                    new Object[]{tableName, rowsAffected});
+            }
         } catch (SQLException e) {
             handleSQLException(e);
             throw new CrudException("Failed to delete record: " + e.getMessage(), e);
         } finally {
-            if (!inTransaction) {
+            if (!isInTransaction()) {
                 DatabaseConnectionManager.closeConnection(conn);
             }
+            CrudMetrics.record(CrudMetrics.Operation.DELETE, tableName, poolName, sql, null, start, rowCount, failed);
+            invalidateCachedResults(tableName);
         }
     }
 
     public List<Map<String, Object>> executeJoinQuery(String joinQuery) {
+        QueryResultCache cache = resultCache;
+        String[] cacheTables = null;
+        long[] cacheStamp = null;
+        if (cache != null && !isInTransaction()) {
+            cacheTables = QueryResultCache.tablesOf(joinQuery);
+            if (cacheTables.length > 0 && cache.isCacheable(cacheTables)) {
+                List<Map<String, Object>> cached = cache.get(poolName, joinQuery, NO_PARAMS);
+                if (cached != null) {
+                    return cached;
+                }
+                cacheStamp = cache.stamp(poolName, cacheTables);
+            }
+        }
         List<Map<String, Object>> results = new ArrayList<>();
         
-        Connection conn = getConnection();
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
+        Connection conn = getReadConnection();
         try (PreparedStatement pstmt = conn.prepareStatement(joinQuery);
              ResultSet rs = pstmt.executeQuery()) {
             
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
+            RowSchema schema = RowSchema.from(rs.getMetaData());
             while (rs.next()) {
-                Map<String, Object> row = new HashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    row.put(metaData.getColumnName(i), rs.getObject(i));
-                }
-                results.add(row);
+                results.add(Row.read(schema, rs));
             }
+            rowCount = results.size();
+            failed = false;
             
-            logger.log(Level.INFO, "Successfully executed join query. Records returned: {0}", 
-                results.size());
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully executed join query. Records returned: {0}", 
+                    results.size());
+            }
+            if (cacheStamp != null) {
+                cache.put(poolName, joinQuery, NO_PARAMS, cacheTables, cacheStamp, results);
+            }
             return results;
         } catch (SQLException e) {
             handleSQLException(e);
             throw new CrudException("Failed to execute join query: " + e.getMessage(), e);
         } finally {
-            if (!inTransaction) {
+            if (!isInTransaction()) {
+                DatabaseConnectionManager.closeConnection(conn);
+            }
+            CrudMetrics.record(CrudMetrics.Operation.JOIN, null, poolName, joinQuery, NO_PARAMS,
+                start, rowCount, failed);
+        }
+    }
+
+    /**
+     * Reads one page of at most {@code limit} rows with keys greater than
+     * {@code afterKey} (all rows from the start when null), ordered by the key column.
+     * The key is bound as a parameter, so deep pages cost the same as the first, and
+     * outside a transaction the connection is held only for this one query.
+     */
+    public KeysetPage readPage(String tableName, String[] columns, String keyColumn, Object afterKey, int limit) {
+        if (keyColumn == null || keyColumn.isEmpty() || limit < 1) {
+            logger.log(Level.SEVERE, "Key column must be set and limit must be at least 1");
+            throw new IllegalArgumentException("Key column must be set and limit must be at least 1");
+        }
+        String[] selectColumns = columns;
+        if (columns != null && !Arrays.asList(columns).contains(keyColumn)) {
+            selectColumns = Arrays.copyOf(columns, columns.length + 1);
+            selectColumns[columns.length] = keyColumn;
+        }
+        Object[] whereParams = afterKey != null ? new Object[]{afterKey} : NO_PARAMS;
+        String sql = buildSelectQuery(tableName, selectColumns, afterKey != null ? keyColumn + " > ?" : null,
+                whereParams)
+            + " ORDER BY " + keyColumn + dialect().limitClause();
+        // ResultSet lookups by label ignore case but not table qualifiers
+        String keyLabel = keyColumn.substring(keyColumn.lastIndexOf('.') + 1);
+        List<Map<String, Object>> results = new ArrayList<>(Math.min(limit, 10_000));
+
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
+        Connection conn = getReadConnection();
+        try (PreparedStatement pstmt = prepareStatement(conn, sql, 0, whereParams)) {
+            // One extra row tells whether another page follows
+            pstmt.setInt(whereParams.length + 1, limit + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowSchema schema = RowSchema.from(rs.getMetaData());
+                Object lastKey = null;
+                boolean more = false;
+                while (rs.next()) {
+                    if (results.size() == limit) {
+                        more = true;
+                        break;
+                    }
+                    results.add(Row.read(schema, rs));
+                    lastKey = rs.getObject(keyLabel);
+                }
+                rowCount = results.size();
+                failed = false;
+                if (logger.isLoggable(Level.INFO)) {
+                    logger.log(Level.INFO, "Successfully read page of {0} records from table {1}",
+                        new Object[]{results.size(), tableName});
+                }
+                return new KeysetPage(results, more ? lastKey : null);
+            }
+        } catch (SQLException e) {
+            handleSQLException(e);
+            throw new CrudException("Failed to read page: " + e.getMessage(), e);
+        } finally {
+            if (!isInTransaction()) {
                 DatabaseConnectionManager.closeConnection(conn);
             }
+            CrudMetrics.record(CrudMetrics.Operation.READ_PAGE, tableName, poolName, sql, whereParams,
+                start, rowCount, failed);
         }
     }
 
+    /**
+     * Walks the whole table in key order, one {@link #readPage} query per page.
+     * No connection is held between pages.
+     */
+    public Iterator<KeysetPage> iteratePages(String tableName, String[] columns, String keyColumn, int pageSize) {
+        return new Iterator<>() {
+            private KeysetPage current = null;
+
+            @Override
+            public boolean hasNext() {
+                return current == null || current.hasNext();
+            }
+
+            @Override
+            public KeysetPage next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object afterKey = current != null ? current.getNextKey() : null;
+                current = readPage(tableName, columns, keyColumn, afterKey, pageSize);
+                return current;
+            }
+        };
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the JDBC fetch size used by the streaming reads. MySQL Connector/J only
+     * streams with useCursorFetch=true on the URL or a fetch size of Integer.MIN_VALUE.
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0 && fetchSize != Integer.MIN_VALUE) {
+            throw new IllegalArgumentException("Fetch size must not be negative");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams the matching rows as they are fetched instead of materializing them.
+     * The stream must be closed (e.g. with try-with-resources) unless it is fully
+     * consumed; either releases the pooled connection.
+     */
+    public Stream<Map<String, Object>> streamRecords(String tableName, String[] columns, String whereClause) {
+        return streamRecords(tableName, columns, whereClause, NO_PARAMS);
+    }
+
+    public Stream<Map<String, Object>> streamRecords(String tableName, String[] columns, String whereClause,
+                                                     Object... whereParams) {
+        return openStream(buildSelectQuery(tableName, columns, whereClause, whereParams), whereParams, tableName);
+    }
+
+    public Stream<Map<String, Object>> streamJoinQuery(String joinQuery) {
+        return openStream(joinQuery, NO_PARAMS, null);
+    }
+
+    public void readRecords(String tableName, String[] columns, String whereClause,
+                            Consumer<Map<String, Object>> consumer) {
+        try (Stream<Map<String, Object>> rows = streamRecords(tableName, columns, whereClause)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    public void executeJoinQuery(String joinQuery, Consumer<Map<String, Object>> consumer) {
+        try (Stream<Map<String, Object>> rows = streamJoinQuery(joinQuery)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    private Stream<Map<String, Object>> openStream(String sql, Object[] params, String tableName) {
+        long start = System.nanoTime();
+        Connection conn = getReadConnection();
+        boolean release = !isInTransaction();
+        boolean restoreAutoCommit = false;
+        PreparedStatement pstmt = null;
+        try {
+            // Drivers such as PostgreSQL only honour the fetch size with a server-side
+            // cursor, which requires auto-commit to be off for the duration of the read
+            if (release && conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            bindParameters(pstmt, 0, params);
+
+            boolean resetAutoCommit = restoreAutoCommit;
+            ResultSetStream.CloseAction closeAction = (rowCount, failed) -> {
+                if (release) {
+                    releaseStreamConnection(conn, resetAutoCommit);
+                }
+                CrudMetrics.record(CrudMetrics.Operation.STREAM, tableName, poolName, sql, params,
+                    start, rowCount, failed);
+            };
+            return ResultSetStream.open(pstmt, closeAction, this::handleStreamException);
+        } catch (SQLException e) {
+            if (pstmt != null) {
+                try {
+                    pstmt.close();
+                } catch (SQLException closeError) {
+                    logger.log(Level.WARNING, "Error closing statement", closeError);
+                }
+            }
+            if (release) {
+                releaseStreamConnection(conn, restoreAutoCommit);
+            }
+            CrudMetrics.record(CrudMetrics.Operation.STREAM, tableName, poolName, sql, params, start, 0, true);
+            handleSQLException(e);
+            throw new CrudException("Failed to open record stream: " + e.getMessage(), e);
+        }
+    }
+
+    private void releaseStreamConnection(Connection conn, boolean restoreAutoCommit) {
+        if (restoreAutoCommit) {
+            try {
+                conn.commit();
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Error ending streaming read", e);
+            }
+        }
+        DatabaseConnectionManager.closeConnection(conn);
+    }
+
+    private void handleStreamException(SQLException e) {
+        if (isInTransaction()) {
+            rollbackTransaction();
+        }
+        logger.log(Level.SEVERE, "SQL error occurred while streaming", e);
+    }
+
+    /**
+     * Deletes the rows whose key is in the given set. Keys are sent in chunks; see
+     * {@link #updateByKeys}. Returns the number of rows deleted.
+     */
+    public int deleteByKeys(String tableName, String keyColumn, long[] keys) {
+        return writeByKeys(CrudMetrics.Operation.DELETE, "DELETE FROM " + tableName + " WHERE ",
+            tableName, keyColumn, NO_PARAMS, keys);
+    }
+
+    /**
+     * Sets the same values on every row whose key is in the given set and returns
+     * the number of rows updated. On PostgreSQL each chunk of keys is bound as one
+     * array parameter; elsewhere keys go into {@code IN (?, ...)} lists padded to a
+     * few fixed sizes, so only a handful of distinct statements reach the caches.
+     * Outside a transaction every chunk commits on its own.
+     */
+    public int updateByKeys(String tableName, String[] columns, Object[] values, String keyColumn, long[] keys) {
+        if (columns == null || values == null || columns.length != values.length) {
+            logger.log(Level.SEVERE, "Columns and values must be non-null and of equal length");
+            throw new IllegalArgumentException("Columns and values must be non-null and of equal length");
+        }
+        String prefix = "UPDATE " + tableName + " SET " + String.join(" = ?, ", columns) + " = ? WHERE ";
+        return writeByKeys(CrudMetrics.Operation.UPDATE, prefix, tableName, keyColumn, values, keys);
+    }
+
+    private int writeByKeys(CrudMetrics.Operation operation, String sqlPrefix, String tableName, String keyColumn,
+                            Object[] values, long[] keys) {
+        if (keyColumn == null || keyColumn.isEmpty() || keys == null) {
+            throw new IllegalArgumentException("Key column and keys must be set");
+        }
+        if (keys.length == 0) {
+            return 0;
+        }
+        Dialect dialect = dialect();
+
+        long start = System.nanoTime();
+        long rowCount = 0;
+        boolean failed = true;
+        String sql = null;
+        Connection conn = getConnection();
+        try {
+            if (dialect.supportsArrayBinding()) {
+                sql = sqlPrefix + keyColumn + " = ANY(?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int offset = 0; offset < keys.length; offset += KEY_ARRAY_CHUNK) {
+                        bindParameters(pstmt, 0, values);
+                        pstmt.setObject(values.length + 1, Arrays.copyOfRange(keys, offset,
+                            Math.min(keys.length, offset + KEY_ARRAY_CHUNK)));
+                        rowCount += pstmt.executeUpdate();
+                    }
+                }
+            } else {
+                int maxBucket = largestKeyBucket(dialect.getMaxBindParameters() - values.length);
+                PreparedStatement[] statements = new PreparedStatement[KEY_BUCKETS.length];
+                try {
+                    int offset = 0;
+                    while (offset < keys.length) {
+                        int remaining = keys.length - offset;
+                        int bucket = 0;
+                        while (bucket < maxBucket && KEY_BUCKETS[bucket] < remaining) {
+                            bucket++;
+                        }
+                        int size = KEY_BUCKETS[bucket];
+                        if (statements[bucket] == null) {
+                            sql = sqlPrefix + keyColumn + " IN (" + "?, ".repeat(size - 1) + "?)";
+                            statements[bucket] = conn.prepareStatement(sql);
+                        }
+                        PreparedStatement pstmt = statements[bucket];
+                        bindParameters(pstmt, 0, values);
+                        int taken = Math.min(size, remaining);
+                        for (int i = 0; i < size; i++) {
+                            // Pad the list by repeating the last key; duplicates do not change the match
+                            pstmt.setLong(values.length + i + 1, keys[offset + Math.min(i, taken - 1)]);
+                        }
+                        rowCount += pstmt.executeUpdate();
+                        offset += taken;
+                    }
+                } finally {
+                    for (PreparedStatement pstmt : statements) {
+                        if (pstmt != null) {
+                            pstmt.close();
+                        }
+                    }
+                }
+            }
+            failed = false;
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully wrote {0} rows by key in table {1}",
+                    new Object[]{rowCount, tableName});
+            }
+            return (int) rowCount;
+        } catch (SQLException e) {
+            handleSQLException(e);
+            throw new CrudException("Failed to write records by key: " + e.getMessage(), e);
+        } finally {
+            if (!isInTransaction()) {
+                DatabaseConnectionManager.closeConnection(conn);
+            }
+            CrudMetrics.record(operation, tableName, poolName, sql, null, start, rowCount, failed);
+            invalidateCachedResults(tableName);
+        }
+    }
+
+    /** Index of the largest key bucket whose placeholders fit into the limit. */
+    private static int largestKeyBucket(int maxPlaceholders) {
+        int bucket = 0;
+        while (bucket + 1 < KEY_BUCKETS.length && KEY_BUCKETS[bucket + 1] <= maxPlaceholders) {
+            bucket++;
+        }
+        return bucket;
+    }
+
     public void executeStoredProcedure(String procedureName, Object... params) {
-        StringBuilder sql = new StringBuilder("{call ").append(procedureName).append("(");
-        sql.append("?,".repeat(params.length)).deleteCharAt(sql.length() - 1).append(")}");
+        String sql = buildCallQuery(procedureName, params.length);
 
+        long start = System.nanoTime();
+        boolean failed = true;
         Connection conn = getConnection();
-        try (CallableStatement cstmt = conn.prepareCall(sql.toString())) {
+        try (CallableStatement cstmt = conn.prepareCall(sql)) {
             for (int i = 0; i < params.length; i++) {
                 cstmt.setObject(i + 1, params[i]);
             }
             cstmt.execute();
-            logger.log(Level.INFO, "Successfully executed stored procedure {0}", procedureName);
+            failed = false;
+            if (logger.isLoggable(Level.INFO)) {
+                logger.log(Level.INFO, "Successfully executed stored procedure {0}", procedureName);
+            }
         } catch (SQLException e) {
             handleSQLException(e);
             throw new CrudException("Failed to execute stored procedure: " + e.getMessage(), e);
         } finally {
-            if (!inTransaction) {
+            if (!isInTransaction()) {
                 DatabaseConnectionManager.closeConnection(conn);
             }
+            CrudMetrics.record(CrudMetrics.Operation.CALL, procedureName, poolName, sql, null, start, 0, failed);
+            // A procedure may write to any table
+            invalidateCachedResults(null);
         }
     }
 
-    private String buildSelectQuery(String tableName, String[] columns, String whereClause) {
+    /**
+     * Shared cache of generated statement text. Statements whose where clause carries
+     * inline literals (no where parameters) are not cached, since each distinct value
+     * would only displace the reusable templates.
+     */
+    public static SqlTemplateCache getSqlTemplateCache() {
+        return sqlTemplateCache;
+    }
+
+    String buildInsertQuery(String tableName, String[] columns) {
+        String cached = sqlTemplateCache.get(SqlTemplateCache.Operation.INSERT, tableName, columns, null, 0);
+        if (cached != null) {
+            return cached;
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+            .append(tableName)
+            .append(" (")
+            .append(String.join(", ", columns))
+            .append(") VALUES (")
+            .append("?, ".repeat(columns.length));
+        sql.setLength(sql.length() - 2); // Remove last comma and space
+        String result = sql.append(")").toString();
+
+        sqlTemplateCache.put(SqlTemplateCache.Operation.INSERT, tableName, columns, null, 0, result);
+        return result;
+    }
+
+    private String buildSelectQuery(String tableName, String[] columns, String whereClause, Object[] whereParams) {
+        boolean cacheable = isCacheable(whereClause, whereParams);
+        if (cacheable) {
+            String cached = sqlTemplateCache.get(SqlTemplateCache.Operation.SELECT, tableName, columns,
+                whereClause, countOf(whereParams));
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         StringBuilder sql = new StringBuilder("SELECT ")
             .append(columns != null ? String.join(", ", columns) : "*")
             .append(" FROM ")
@@ -263,11 +1159,25 @@ public class CrudOperations {
             sql.append(" WHERE ").append(whereClause);
         }
         
-        return sql.toString();
+        String result = sql.toString();
+        if (cacheable) {
+            sqlTemplateCache.put(SqlTemplateCache.Operation.SELECT, tableName, columns,
+                whereClause, countOf(whereParams), result);
+        }
+        return result;
     }
 
-    private String buildUpdateQuery(String tableName, String[] columns, String whereClause) {
-        return new StringBuilder("UPDATE ")
+    String buildUpdateQuery(String tableName, String[] columns, String whereClause, Object[] whereParams) {
+        boolean cacheable = isCacheable(whereClause, whereParams);
+        if (cacheable) {
+            String cached = sqlTemplateCache.get(SqlTemplateCache.Operation.UPDATE, tableName, columns,
+                whereClause, countOf(whereParams));
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String result = new StringBuilder("UPDATE ")
             .append(tableName)
             .append(" SET ")
             .append(String.join(" = ?, ", columns))
@@ -275,6 +1185,55 @@ public class CrudOperations {
             .append(" WHERE ")
             .append(whereClause)
             .toString();
+
+        if (cacheable) {
+            sqlTemplateCache.put(SqlTemplateCache.Operation.UPDATE, tableName, columns,
+                whereClause, countOf(whereParams), result);
+        }
+        return result;
+    }
+
+    String buildDeleteQuery(String tableName, String whereClause, Object[] whereParams) {
+        boolean cacheable = isCacheable(whereClause, whereParams);
+        if (cacheable) {
+            String cached = sqlTemplateCache.get(SqlTemplateCache.Operation.DELETE, tableName, null,
+                whereClause, countOf(whereParams));
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String result = "DELETE FROM " + tableName + " WHERE " + whereClause;
+
+        if (cacheable) {
+            sqlTemplateCache.put(SqlTemplateCache.Operation.DELETE, tableName, null,
+                whereClause, countOf(whereParams), result);
+        }
+        return result;
+    }
+
+    private String buildCallQuery(String procedureName, int paramCount) {
+        String cached = sqlTemplateCache.get(SqlTemplateCache.Operation.CALL, procedureName, null, null, paramCount);
+        if (cached != null) {
+            return cached;
+        }
+
+        StringBuilder sql = new StringBuilder("{call ").append(procedureName).append("(");
+        if (paramCount > 0) {
+            sql.append("?,".repeat(paramCount)).setLength(sql.length() - 1);
+        }
+        String result = sql.append(")}").toString();
+
+        sqlTemplateCache.put(SqlTemplateCache.Operation.CALL, procedureName, null, null, paramCount, result);
+        return result;
+    }
+
+    private int countOf(Object[] params) {
+        return params != null ? params.length : 0;
+    }
+
+    private boolean isCacheable(String whereClause, Object[] whereParams) {
+        return whereClause == null || whereClause.isEmpty() || countOf(whereParams) > 0;
     }
 
     private String buildJoinQuery(String[] tables, String joinCondition) {
@@ -284,4 +1243,14 @@ public class CrudOperations {
             .append(joinCondition)
             .toString();
     }
+
+    private static final class TransactionState {
+        private final Connection connection;
+        private final Set<String> pendingInvalidations = new HashSet<>();
+        private boolean pendingInvalidateAll = false;
+
+        TransactionState(Connection connection) {
+            this.connection = connection;
+        }
+    }
 }
@@ -1,15 +1,50 @@
 package com.jdbc.crud;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 import java.util.logging.Formatter;
 import java.util.logging.LogRecord;
 
 public class CustomLogFormatter extends Formatter {
+    // Same layout as java.util.Date#toString, which this formatter used to print
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US).withZone(ZoneId.systemDefault());
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private volatile CachedTimestamp cachedTimestamp = new CachedTimestamp(Long.MIN_VALUE, "");
+
     @Override
     public String format(LogRecord record) {
-        return new Date(record.getMillis()) + " | " +
-               record.getLevel() + " | " +
-               record.getSourceClassName() + " | " +
-               record.getMessage() + "\n";
+        StringBuilder sb = buffers.get();
+        sb.setLength(0);
+        sb.append(timestamp(record.getMillis())).append(" | ")
+          .append(record.getLevel()).append(" | ")
+          // The logger name is the class name here, and unlike getSourceClassName it
+          // needs no stack walk, which would also be wrong on an async writer thread
+          .append(record.getLoggerName()).append(" | ")
+          .append(formatMessage(record)).append('\n');
+        return sb.toString();
+    }
+
+    private String timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000L);
+        CachedTimestamp cached = cachedTimestamp;
+        if (cached.second != second) {
+            cached = new CachedTimestamp(second, TIMESTAMP_FORMAT.format(Instant.ofEpochSecond(second)));
+            cachedTimestamp = cached;
+        }
+        return cached.text;
+    }
+
+    private static final class CachedTimestamp {
+        private final long second;
+        private final String text;
+
+        CachedTimestamp(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
     }
 }
@@ -2,51 +2,477 @@ package com.jdbc.crud;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DatabaseConnectionManager {
+    public enum ReplicaBalancing {
+        ROUND_ROBIN, LEAST_ACTIVE
+    }
+
     private static final Logger logger = Logger.getLogger(DatabaseConnectionManager.class.getName());
-    private static HikariDataSource dataSource;
+    private static final String PRIMARY_POOL_NAME = "primary";
+    private static volatile HikariDataSource dataSource;
+    private static final List<HikariDataSource> replicas = new CopyOnWriteArrayList<>();
+    private static final Map<String, HikariDataSource> namedPools = new ConcurrentHashMap<>();
+    private static final Map<String, Dialect> namedPoolDialects = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> routingCounts = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    private static final List<String> warmUpStatements = new CopyOnWriteArrayList<>();
+    private static volatile ReplicaBalancing replicaBalancing = ReplicaBalancing.ROUND_ROBIN;
+    private static volatile Dialect dialect = Dialect.GENERIC;
+    private static LongAdder primaryRoutingCount;
+    private static boolean statementCacheEnabled;
+    private static int statementCacheSize;
+    private static int statementCacheSqlLimit;
+    private static boolean serverSidePrepare;
+    private static PoolAutoTuner autoTuner;
 
     static {
+        LoggerUtil.configureLogger(logger);
+
+        // Driver-level prepared statement cache
+        statementCacheEnabled = getEnvBoolean("DB_STMT_CACHE_ENABLED", true);
+        statementCacheSize = getEnvInt("DB_STMT_CACHE_SIZE", 250);
+        statementCacheSqlLimit = getEnvInt("DB_STMT_CACHE_SQL_LIMIT", 2048);
+        serverSidePrepare = getEnvBoolean("DB_SERVER_PREPARE", true);
+    }
+
+    /**
+     * Creates the pools from the environment unless they already exist. The primary
+     * pool is read from the Hikari properties file named by DB_CONFIG_FILE, or else
+     * from the DB_* variables; replicas come from DB_REPLICA_*. The first request for
+     * a connection calls this implicitly; call it at startup to fail fast instead. A
+     * failed attempt leaves nothing behind, so a later call tries again.
+     */
+    public static void initialize() {
+        if (dataSource != null) {
+            return;
+        }
+        synchronized (DatabaseConnectionManager.class) {
+            if (dataSource != null) {
+                return;
+            }
+            try {
+                String configFile = System.getenv("DB_CONFIG_FILE");
+                HikariConfig config = configFile != null && !configFile.isBlank()
+                    ? new HikariConfig(loadProperties(configFile.trim()))
+                    : createPoolConfig("DB", PRIMARY_POOL_NAME);
+                startPrimary(config);
+
+                int replicaCount = getEnvInt("DB_REPLICA_COUNT", 0);
+                for (int i = 1; i <= replicaCount; i++) {
+                    addReplica(createPoolConfig("DB_REPLICA_" + i, "replica-" + i));
+                }
+                int shardCount = getEnvInt("DB_SHARD_COUNT", 0);
+                for (int i = 1; i <= shardCount; i++) {
+                    addPool(createPoolConfig("DB_SHARD_" + i, "shard-" + i));
+                }
+                String balancing = System.getenv("DB_REPLICA_BALANCING");
+                if (balancing != null && !balancing.isBlank()) {
+                    replicaBalancing = ReplicaBalancing.valueOf(balancing.trim().toUpperCase());
+                }
+                if (getEnvBoolean("DB_WARMUP_ENABLED", false)) {
+                    warmUp();
+                }
+            } catch (RuntimeException | IOException e) {
+                logger.log(Level.SEVERE, "Failed to initialize connection pool", e);
+                shutdown();
+                throw new CrudException("Failed to initialize connection pool: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Creates the primary pool from an explicit configuration, which may set any
+     * Hikari option. Pools without a name are named "primary". Replicas are added
+     * separately with {@link #addReplica}.
+     */
+    public static synchronized void initialize(HikariConfig config) {
+        if (dataSource != null) {
+            throw new IllegalStateException("Connection pool already initialized");
+        }
         try {
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(System.getenv("DB_URL"));
-            config.setUsername(System.getenv("DB_USER"));
-            config.setPassword(System.getenv("DB_PASS"));
-            
-            // Connection pool settings
-            config.setMaximumPoolSize(10);
-            config.setMinimumIdle(2);
-            config.setIdleTimeout(30000);
-            config.setMaxLifetime(1800000);
-            config.setConnectionTimeout(10000);
-            config.setLeakDetectionThreshold(5000);
-            
-            // Connection validation
-            config.setConnectionTestQuery("SELECT 1");
-            config.setValidationTimeout(1000);
-            
-            dataSource = new HikariDataSource(config);
-            logger.log(Level.INFO, "HikariCP connection pool initialized");
-        } catch (Exception e) {
+            startPrimary(config);
+        } catch (RuntimeException e) {
             logger.log(Level.SEVERE, "Failed to initialize connection pool", e);
-            throw new RuntimeException("Failed to initialize connection pool", e);
+            throw new CrudException("Failed to initialize connection pool: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates the primary pool from Hikari property names such as {@code jdbcUrl},
+     * {@code maximumPoolSize} or {@code dataSource.cachePrepStmts}.
+     */
+    public static void initialize(Properties properties) {
+        initialize(new HikariConfig(properties));
+    }
+
+    public static boolean isInitialized() {
+        return dataSource != null;
+    }
+
+    private static void startPrimary(HikariConfig config) {
+        if (config.getPoolName() == null) {
+            config.setPoolName(PRIMARY_POOL_NAME);
+        }
+        if (config.getMetricsTrackerFactory() == null) {
+            config.setMetricsTrackerFactory(CrudMetrics.metricsTrackerFactory());
+        }
+        HikariDataSource pool = new HikariDataSource(config);
+        dialect = Dialect.fromJdbcUrl(pool.getJdbcUrl());
+        primaryRoutingCount = routingCounts.computeIfAbsent(pool.getPoolName(), name -> new LongAdder());
+        dataSource = pool;
+        logger.log(Level.INFO, "HikariCP connection pool initialized");
+
+        if (getEnvBoolean("DB_AUTOTUNE_ENABLED", false)) {
+            startAutoTuner();
+        }
+    }
+
+    private static Properties loadProperties(String fileName) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(Paths.get(fileName))) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static HikariDataSource primary() {
+        HikariDataSource pool = dataSource;
+        if (pool == null) {
+            initialize();
+            pool = dataSource;
+        }
+        return pool;
+    }
+
+    /**
+     * Builds a pool configuration from the environment variables starting with the
+     * given prefix: {@code <prefix>_URL}, {@code _USER}, {@code _PASS} and the optional
+     * {@code _MAX_POOL_SIZE}, {@code _MIN_IDLE}, {@code _IDLE_TIMEOUT_MS},
+     * {@code _MAX_LIFETIME_MS}, {@code _CONNECTION_TIMEOUT_MS},
+     * {@code _LEAK_DETECTION_MS}, {@code _VALIDATION_TIMEOUT_MS} and
+     * {@code _KEEPALIVE_MS}. Other Hikari options need DB_CONFIG_FILE or an explicit
+     * configuration.
+     */
+    private static HikariConfig createPoolConfig(String envPrefix, String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(System.getenv(envPrefix + "_URL"));
+        config.setUsername(System.getenv(envPrefix + "_USER"));
+        config.setPassword(System.getenv(envPrefix + "_PASS"));
+        
+        // Connection pool settings
+        config.setMaximumPoolSize(getEnvInt(envPrefix + "_MAX_POOL_SIZE", 10));
+        config.setMinimumIdle(getEnvInt(envPrefix + "_MIN_IDLE", 2));
+        config.setIdleTimeout(getEnvInt(envPrefix + "_IDLE_TIMEOUT_MS", 30000));
+        config.setMaxLifetime(getEnvInt(envPrefix + "_MAX_LIFETIME_MS", 1800000));
+        config.setConnectionTimeout(getEnvInt(envPrefix + "_CONNECTION_TIMEOUT_MS", 10000));
+        config.setLeakDetectionThreshold(getEnvInt(envPrefix + "_LEAK_DETECTION_MS", 5000));
+        config.setKeepaliveTime(getEnvInt(envPrefix + "_KEEPALIVE_MS", 0));
+        
+        // Connection validation
+        config.setConnectionTestQuery("SELECT 1");
+        config.setValidationTimeout(getEnvInt(envPrefix + "_VALIDATION_TIMEOUT_MS", 1000));
+
+        configureStatementCache(config, config.getJdbcUrl());
+
+        // Pool metrics: acquire/usage times and timeouts, plus Hikari's own MBeans
+        config.setMetricsTrackerFactory(CrudMetrics.metricsTrackerFactory());
+        config.setRegisterMbeans(true);
+        return config;
+    }
+
+    /**
+     * Starts the primary pool autotuner with bounds and thresholds from the
+     * DB_AUTOTUNE_* environment variables.
+     */
+    private static void startAutoTuner() {
+        int configuredMax = dataSource.getMaximumPoolSize();
+        int minPoolSize = getEnvInt("DB_AUTOTUNE_MIN_POOL_SIZE", Math.max(1, dataSource.getMinimumIdle()));
+        int maxPoolSize = getEnvInt("DB_AUTOTUNE_MAX_POOL_SIZE", configuredMax * 2);
+        autoTuner = new PoolAutoTuner(dataSource, minPoolSize, maxPoolSize,
+            getEnvInt("DB_AUTOTUNE_TARGET_WAIT_MS", 5), TimeUnit.MILLISECONDS,
+            getEnvInt("DB_AUTOTUNE_GROW_SAMPLES", 2), getEnvInt("DB_AUTOTUNE_SHRINK_SAMPLES", 12));
+        autoTuner.start(getEnvInt("DB_AUTOTUNE_INTERVAL_MS", 5000), TimeUnit.MILLISECONDS);
+    }
+
+    private static void configureStatementCache(HikariConfig config, String jdbcUrl) {
+        if (!statementCacheEnabled || jdbcUrl == null) {
+            return;
+        }
+        if (jdbcUrl.startsWith("jdbc:mysql:") || jdbcUrl.startsWith("jdbc:mariadb:")) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(statementCacheSqlLimit));
+            config.addDataSourceProperty("useServerPrepStmts", String.valueOf(serverSidePrepare));
+        } else if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+            config.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(statementCacheSize));
+            // A threshold of 0 disables server-side prepared statements entirely
+            config.addDataSourceProperty("prepareThreshold", serverSidePrepare ? "1" : "0");
+        } else {
+            logger.log(Level.INFO, "No statement cache properties known for {0}; using driver defaults", jdbcUrl);
+        }
+    }
+
+    static int getEnvInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Ignoring invalid value for {0}: {1}", new Object[]{name, value});
+            return defaultValue;
         }
     }
 
+    static boolean getEnvBoolean(String name, boolean defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
     private DatabaseConnectionManager() {
         // Private constructor to prevent instantiation
     }
 
     public static Connection getConnection() throws SQLException {
-        if (dataSource == null) {
-            throw new SQLException("Connection pool not initialized");
+        Connection conn = AdmissionControl.getConnection(primary());
+        primaryRoutingCount.increment();
+        return traced(conn);
+    }
+
+    /**
+     * Wraps a connection just handed out for tracing. If that fails, the connection
+     * is closed so it goes back to its pool and releases its admission slot.
+     */
+    private static Connection traced(Connection conn) throws SQLException {
+        try {
+            return ConnectionTracer.trace(conn);
+        } catch (SQLException | RuntimeException e) {
+            try {
+                conn.close();
+            } catch (SQLException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a connection for a read outside of a transaction. Reads go to a replica
+     * chosen by the configured balancing strategy, or to the primary when no replica
+     * is configured, the chosen replica cannot hand out a connection or its circuit
+     * breaker is open.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        primary();
+        HikariDataSource replica = selectReplica();
+        if (replica == null) {
+            return getConnection();
+        }
+        try {
+            Connection conn = AdmissionControl.getConnection(replica);
+            routingCounts.get(replica.getPoolName()).increment();
+            return traced(conn);
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Replica " + replica.getPoolName() + " unavailable, reading from primary", e);
+            return getConnection();
+        } catch (AdmissionRejectedException e) {
+            if (e.getReason() != AdmissionRejectedException.Reason.CIRCUIT_OPEN) {
+                throw e;
+            }
+            return getConnection();
+        }
+    }
+
+    private static HikariDataSource selectReplica() {
+        List<HikariDataSource> candidates = replicas;
+        int size = candidates.size();
+        if (size == 0) {
+            return null;
+        }
+        if (replicaBalancing == ReplicaBalancing.LEAST_ACTIVE) {
+            HikariDataSource best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (HikariDataSource candidate : candidates) {
+                int active = candidate.getHikariPoolMXBean().getActiveConnections();
+                if (active < bestActive) {
+                    best = candidate;
+                    bestActive = active;
+                }
+            }
+            return best;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), size));
+    }
+
+    /**
+     * Adds a read replica pool with its own settings. The pool name identifies the
+     * replica in the routing counters and must be unique.
+     */
+    public static synchronized void addReplica(HikariConfig config) {
+        String poolName = config.getPoolName();
+        if (poolName == null || routingCounts.containsKey(poolName) || namedPools.containsKey(poolName)) {
+            throw new IllegalArgumentException("Replica pool needs a unique pool name: " + poolName);
+        }
+        if (config.getMetricsTrackerFactory() == null) {
+            config.setMetricsTrackerFactory(CrudMetrics.metricsTrackerFactory());
+        }
+        // Register the counter only once the pool exists, so a failed pool leaves nothing behind
+        HikariDataSource replica = new HikariDataSource(config);
+        routingCounts.put(poolName, new LongAdder());
+        replicas.add(replica);
+        logger.log(Level.INFO, "Read replica pool {0} initialized", poolName);
+    }
+
+    /**
+     * Registers a named pool, such as one shard of a sharded table, with its own
+     * settings. Named pools are only used by a {@link CrudOperations} created for
+     * them; the pool name must be unique among all pools.
+     */
+    public static synchronized void addPool(HikariConfig config) {
+        String poolName = config.getPoolName();
+        if (poolName == null || routingCounts.containsKey(poolName) || namedPools.containsKey(poolName)) {
+            throw new IllegalArgumentException("Pool needs a unique pool name: " + poolName);
+        }
+        if (config.getMetricsTrackerFactory() == null) {
+            config.setMetricsTrackerFactory(CrudMetrics.metricsTrackerFactory());
+        }
+        HikariDataSource pool = new HikariDataSource(config);
+        namedPoolDialects.put(poolName, Dialect.fromJdbcUrl(pool.getJdbcUrl()));
+        routingCounts.put(poolName, new LongAdder());
+        namedPools.put(poolName, pool);
+        logger.log(Level.INFO, "Connection pool {0} initialized", poolName);
+    }
+
+    /**
+     * Returns a connection from a pool registered with {@link #addPool}, or from
+     * DB_SHARD_* when the pools are initialized from the environment.
+     */
+    public static Connection getConnection(String poolName) throws SQLException {
+        HikariDataSource pool = namedPool(poolName);
+        Connection conn = AdmissionControl.getConnection(pool);
+        routingCounts.get(poolName).increment();
+        return traced(conn);
+    }
+
+    public static Dialect getDialect(String poolName) {
+        namedPool(poolName);
+        return namedPoolDialects.get(poolName);
+    }
+
+    public static Set<String> getPoolNames() {
+        return new TreeSet<>(namedPools.keySet());
+    }
+
+    private static HikariDataSource namedPool(String poolName) {
+        HikariDataSource pool = namedPools.get(poolName);
+        if (pool == null && dataSource == null) {
+            // Pools from DB_SHARD_* appear with the environment initialization
+            initialize();
+            pool = namedPools.get(poolName);
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown connection pool: " + poolName);
+        }
+        return pool;
+    }
+
+    public static void setReplicaBalancing(ReplicaBalancing balancing) {
+        replicaBalancing = balancing;
+    }
+
+    public static ReplicaBalancing getReplicaBalancing() {
+        return replicaBalancing;
+    }
+
+    public static int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * Number of connections handed out per pool since startup, keyed by pool name.
+     */
+    public static Map<String, Long> getRoutingCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        routingCounts.forEach((pool, count) -> counts.put(pool, count.sum()));
+        return counts;
+    }
+
+    /** SQL dialect of the primary database, detected from its JDBC URL. */
+    public static Dialect getDialect() {
+        primary();
+        return dialect;
+    }
+
+    public static int getMaximumPoolSize() {
+        return primary().getMaximumPoolSize();
+    }
+
+    /**
+     * Connections that reads outside a transaction can hold at once: the primary's
+     * pool size without replicas, otherwise the replica count times the smallest
+     * replica pool, since reads are spread evenly across the replicas.
+     */
+    static int getReadPoolSize() {
+        HikariDataSource primary = primary();
+        List<HikariDataSource> candidates = replicas;
+        if (candidates.isEmpty()) {
+            return primary.getMaximumPoolSize();
+        }
+        int smallest = Integer.MAX_VALUE;
+        for (HikariDataSource candidate : candidates) {
+            smallest = Math.min(smallest, candidate.getMaximumPoolSize());
+        }
+        return candidates.size() * smallest;
+    }
+
+    /**
+     * Registers a statement that {@link #warmUp()} prepares on every warmed
+     * connection, so its first real use finds it in the statement caches.
+     */
+    public static void registerWarmUpStatement(String sql) {
+        if (sql == null || sql.isBlank()) {
+            throw new IllegalArgumentException("Warm-up statement must not be empty");
         }
-        return dataSource.getConnection();
+        warmUpStatements.add(sql);
+    }
+
+    /**
+     * Opens connections up to minimumIdle in every pool (primary, replicas and named
+     * pools such as shards) and prepares the registered statements on each of them,
+     * in parallel. Call it before the service reports
+     * ready; DB_WARMUP_ENABLED runs it during {@link #initialize()}. Returns how long
+     * the warm-up took.
+     */
+    public static Duration warmUp() {
+        List<HikariDataSource> pools = new ArrayList<>();
+        pools.add(primary());
+        pools.addAll(replicas);
+        pools.addAll(namedPools.values());
+        return PoolWarmUp.run(pools, warmUpStatements);
     }
 
     public static void closeConnection(Connection conn) {
@@ -61,10 +487,51 @@ public class DatabaseConnectionManager {
         }
     }
 
-    public static void shutdown() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
+    /**
+     * Closes all pools. A later request for a connection initializes them again.
+     */
+    public static synchronized void shutdown() {
+        if (autoTuner != null) {
+            autoTuner.close();
+            autoTuner = null;
+        }
+        for (HikariDataSource replica : replicas) {
+            routingCounts.remove(replica.getPoolName());
+            if (!replica.isClosed()) {
+                replica.close();
+            }
+        }
+        replicas.clear();
+        for (Map.Entry<String, HikariDataSource> pool : namedPools.entrySet()) {
+            routingCounts.remove(pool.getKey());
+            if (!pool.getValue().isClosed()) {
+                pool.getValue().close();
+            }
+        }
+        namedPools.clear();
+        namedPoolDialects.clear();
+        AdmissionControl.clear();
+        HikariDataSource pool = dataSource;
+        dataSource = null;
+        if (pool != null && !pool.isClosed()) {
+            pool.close();
             logger.log(Level.INFO, "Connection pool shutdown completed");
         }
     }
+
+    public static boolean isStatementCacheEnabled() {
+        return statementCacheEnabled;
+    }
+
+    public static int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public static int getStatementCacheSqlLimit() {
+        return statementCacheSqlLimit;
+    }
+
+    public static boolean isServerSidePrepare() {
+        return serverSidePrepare;
+    }
 }
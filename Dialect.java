@@ -0,0 +1,266 @@
+package com.jdbc.crud;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SQL dialect of the configured database, detected from the JDBC URL. Generates the
+ * multi-row INSERT and native upsert statements used by the bulk writer; parameters
+ * are always bound row by row, column by column.
+ */
+public enum Dialect {
+    MYSQL(65_535, Integer.MAX_VALUE),
+    MARIADB(65_535, Integer.MAX_VALUE),
+    POSTGRESQL(32_767, Integer.MAX_VALUE),
+    H2(100_000, Integer.MAX_VALUE),
+    // A VALUES list, also inside MERGE USING, takes at most 1000 row value expressions
+    SQLSERVER(2_000, 1_000),
+    ORACLE(65_535, Integer.MAX_VALUE),
+    GENERIC(2_000, Integer.MAX_VALUE);
+
+    private final int maxBindParameters;
+    private final int maxRowsPerStatement;
+
+    Dialect(int maxBindParameters, int maxRowsPerStatement) {
+        this.maxBindParameters = maxBindParameters;
+        this.maxRowsPerStatement = maxRowsPerStatement;
+    }
+
+    public static Dialect fromJdbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null) {
+            return GENERIC;
+        }
+        String url = jdbcUrl.toLowerCase();
+        if (url.startsWith("jdbc:mysql:")) {
+            return MYSQL;
+        } else if (url.startsWith("jdbc:mariadb:")) {
+            return MARIADB;
+        } else if (url.startsWith("jdbc:postgresql:")) {
+            return POSTGRESQL;
+        } else if (url.startsWith("jdbc:h2:")) {
+            return H2;
+        } else if (url.startsWith("jdbc:sqlserver:")) {
+            return SQLSERVER;
+        } else if (url.startsWith("jdbc:oracle:")) {
+            return ORACLE;
+        }
+        return GENERIC;
+    }
+
+    /** Most bind parameters the driver accepts in a single statement. */
+    public int getMaxBindParameters() {
+        return maxBindParameters;
+    }
+
+    /** Most rows a single multi-row INSERT or upsert statement may carry. */
+    public int getMaxRowsPerStatement() {
+        return maxRowsPerStatement;
+    }
+
+    public boolean supportsUpsert() {
+        return this != GENERIC;
+    }
+
+    /**
+     * Whether a key set can be bound as one array parameter, as in
+     * {@code id = ANY(?)} with a {@code long[]}.
+     */
+    public boolean supportsArrayBinding() {
+        return this == POSTGRESQL;
+    }
+
+    /**
+     * Prefix that turns a query into a plan query returning rows, or null where the
+     * plan is not available that way.
+     */
+    String explainPrefix() {
+        switch (this) {
+            case MYSQL:
+            case MARIADB:
+            case POSTGRESQL:
+            case H2:
+                return "EXPLAIN ";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Table reference that reads roughly the given percentage of the table's rows
+     * without scanning it all, or null where the dialect has no sampling clause.
+     */
+    String tableSample(String tableName, String percent) {
+        switch (this) {
+            case POSTGRESQL:
+                return tableName + " TABLESAMPLE SYSTEM (" + percent + ")";
+            case SQLSERVER:
+                return tableName + " TABLESAMPLE (" + percent + " PERCENT)";
+            case ORACLE:
+                return tableName + " SAMPLE (" + percent + ")";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Predicate that keeps each row with the given probability, or null where the
+     * dialect has no random function for it.
+     */
+    String randomRowPredicate(String fraction) {
+        switch (this) {
+            case MYSQL:
+            case MARIADB:
+            case H2:
+                return "RAND() < " + fraction;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Row limit appended after ORDER BY, with the limit as a bind parameter.
+     */
+    String limitClause() {
+        switch (this) {
+            case MYSQL:
+            case MARIADB:
+            case POSTGRESQL:
+            case H2:
+                return " LIMIT ?";
+            case SQLSERVER:
+                return " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+            default:
+                return " FETCH FIRST ? ROWS ONLY";
+        }
+    }
+
+    String multiRowInsert(String tableName, String[] columns, int rowCount) {
+        String columnList = String.join(", ", columns);
+        if (this == ORACLE) {
+            // Oracle before 23c has no multi-row VALUES
+            StringBuilder sql = new StringBuilder("INSERT ALL");
+            String into = " INTO " + tableName + " (" + columnList + ") VALUES " + placeholders(columns.length);
+            for (int r = 0; r < rowCount; r++) {
+                sql.append(into);
+            }
+            return sql.append(" SELECT 1 FROM DUAL").toString();
+        }
+        return "INSERT INTO " + tableName + " (" + columnList + ") VALUES " + valuesList(columns.length, rowCount);
+    }
+
+    String multiRowUpsert(String tableName, String[] columns, String[] keyColumns, int rowCount) {
+        String columnList = String.join(", ", columns);
+        String[] updateColumns = nonKeyColumns(columns, keyColumns);
+        StringBuilder sql = new StringBuilder();
+        switch (this) {
+            case MYSQL:
+            case MARIADB:
+                sql.append("INSERT INTO ").append(tableName).append(" (").append(columnList).append(") VALUES ")
+                   .append(valuesList(columns.length, rowCount)).append(" ON DUPLICATE KEY UPDATE ");
+                if (updateColumns.length == 0) {
+                    // Nothing to update; assigning a key to itself turns duplicates into no-ops
+                    sql.append(keyColumns[0]).append(" = ").append(keyColumns[0]);
+                } else {
+                    appendAssignments(sql, updateColumns, "VALUES(", ")");
+                }
+                return sql.toString();
+            case POSTGRESQL:
+                sql.append("INSERT INTO ").append(tableName).append(" (").append(columnList).append(") VALUES ")
+                   .append(valuesList(columns.length, rowCount))
+                   .append(" ON CONFLICT (").append(String.join(", ", keyColumns)).append(")");
+                if (updateColumns.length == 0) {
+                    sql.append(" DO NOTHING");
+                } else {
+                    sql.append(" DO UPDATE SET ");
+                    appendAssignments(sql, updateColumns, "EXCLUDED.", "");
+                }
+                return sql.toString();
+            case H2:
+                return sql.append("MERGE INTO ").append(tableName).append(" (").append(columnList).append(") KEY (")
+                    .append(String.join(", ", keyColumns)).append(") VALUES ")
+                    .append(valuesList(columns.length, rowCount)).toString();
+            case SQLSERVER:
+                sql.append("MERGE INTO ").append(tableName).append(" AS target USING (VALUES ")
+                   .append(valuesList(columns.length, rowCount)).append(") AS source (").append(columnList)
+                   .append(") ON ");
+                appendKeyMatch(sql, keyColumns);
+                appendMergeActions(sql, columns, updateColumns);
+                return sql.append(";").toString();
+            case ORACLE:
+                sql.append("MERGE INTO ").append(tableName).append(" target USING (");
+                for (int r = 0; r < rowCount; r++) {
+                    sql.append(r == 0 ? "SELECT " : " UNION ALL SELECT ");
+                    for (int c = 0; c < columns.length; c++) {
+                        sql.append(c == 0 ? "" : ", ").append("? ").append(columns[c]);
+                    }
+                    sql.append(" FROM DUAL");
+                }
+                sql.append(") source ON (");
+                appendKeyMatch(sql, keyColumns);
+                sql.append(")");
+                appendMergeActions(sql, columns, updateColumns);
+                return sql.toString();
+            default:
+                throw new UnsupportedOperationException("Upsert is not supported for dialect " + this);
+        }
+    }
+
+    private static String[] nonKeyColumns(String[] columns, String[] keyColumns) {
+        List<String> keys = Arrays.asList(keyColumns);
+        List<String> result = new ArrayList<>();
+        for (String column : columns) {
+            if (!keys.contains(column)) {
+                result.add(column);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private static void appendAssignments(StringBuilder sql, String[] columns, String prefix, String suffix) {
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns[i]).append(" = ").append(prefix).append(columns[i])
+               .append(suffix);
+        }
+    }
+
+    private static void appendKeyMatch(StringBuilder sql, String[] keyColumns) {
+        for (int i = 0; i < keyColumns.length; i++) {
+            sql.append(i == 0 ? "" : " AND ").append("target.").append(keyColumns[i])
+               .append(" = source.").append(keyColumns[i]);
+        }
+    }
+
+    private static void appendMergeActions(StringBuilder sql, String[] columns, String[] updateColumns) {
+        if (updateColumns.length > 0) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ");
+            for (int i = 0; i < updateColumns.length; i++) {
+                sql.append(i == 0 ? "" : ", ").append("target.").append(updateColumns[i])
+                   .append(" = source.").append(updateColumns[i]);
+            }
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT (").append(String.join(", ", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append("source.").append(columns[i]);
+        }
+        sql.append(")");
+    }
+
+    private static String placeholders(int columnCount) {
+        StringBuilder row = new StringBuilder("(").append("?, ".repeat(columnCount));
+        row.setLength(row.length() - 2);
+        return row.append(")").toString();
+    }
+
+    private static String valuesList(int columnCount, int rowCount) {
+        String row = placeholders(columnCount);
+        StringBuilder values = new StringBuilder(rowCount * (row.length() + 2));
+        for (int r = 0; r < rowCount; r++) {
+            if (r > 0) {
+                values.append(", ");
+            }
+            values.append(row);
+        }
+        return values.toString();
+    }
+}
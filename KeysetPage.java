@@ -0,0 +1,31 @@
+package com.jdbc.crud;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a keyset-paginated read: the rows, ordered by the key column, and the
+ * key to pass as {@code afterKey} for the following page.
+ */
+public class KeysetPage {
+    private final List<Map<String, Object>> rows;
+    private final Object nextKey;
+
+    KeysetPage(List<Map<String, Object>> rows, Object nextKey) {
+        this.rows = rows;
+        this.nextKey = nextKey;
+    }
+
+    public List<Map<String, Object>> getRows() {
+        return rows;
+    }
+
+    /** Key of the last row on this page, or null when this is the last page. */
+    public Object getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasNext() {
+        return nextKey != null;
+    }
+}
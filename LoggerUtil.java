@@ -1,27 +1,81 @@
 package com.jdbc.crud;
 
 import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class LoggerUtil {
+    private static Handler sharedHandler;
+
     private LoggerUtil() {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * Attaches the shared console handler to the logger. By default records are written
+     * asynchronously through an {@link AsyncLogHandler}; the behaviour is controlled by
+     * LOG_LEVEL (default ALL), LOG_ASYNC (default true), LOG_QUEUE_SIZE (default 8192)
+     * and LOG_OVERFLOW (BLOCK or DROP, default BLOCK).
+     */
     public static void configureLogger(Logger logger) {
         // Remove default handlers
         logger.setUseParentHandlers(false);
         
-        // Create console handler
-        ConsoleHandler consoleHandler = new ConsoleHandler();
-        consoleHandler.setLevel(Level.ALL);
-        
-        // Set formatter
-        consoleHandler.setFormatter(new CustomLogFormatter());
-        
         // Add handler to logger
-        logger.addHandler(consoleHandler);
-        logger.setLevel(Level.ALL);
+        logger.addHandler(getSharedHandler());
+        logger.setLevel(getEnvLevel());
+    }
+
+    private static synchronized Handler getSharedHandler() {
+        if (sharedHandler == null) {
+            // Create console handler
+            ConsoleHandler consoleHandler = new ConsoleHandler();
+            consoleHandler.setLevel(Level.ALL);
+            
+            // Set formatter
+            consoleHandler.setFormatter(new CustomLogFormatter());
+
+            String async = System.getenv("LOG_ASYNC");
+            if (async != null && !Boolean.parseBoolean(async.trim())) {
+                sharedHandler = consoleHandler;
+            } else {
+                AsyncLogHandler asyncHandler = new AsyncLogHandler(consoleHandler, getEnvQueueSize(),
+                    getEnvOverflowPolicy());
+                asyncHandler.setLevel(Level.ALL);
+                Runtime.getRuntime().addShutdownHook(new Thread(asyncHandler::close, "async-log-shutdown"));
+                sharedHandler = asyncHandler;
+            }
+        }
+        return sharedHandler;
+    }
+
+    private static Level getEnvLevel() {
+        String value = System.getenv("LOG_LEVEL");
+        if (value == null || value.isBlank()) {
+            return Level.ALL;
+        }
+        try {
+            return Level.parse(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.ALL;
+        }
+    }
+
+    private static int getEnvQueueSize() {
+        String value = System.getenv("LOG_QUEUE_SIZE");
+        try {
+            return value == null || value.isBlank() ? 8192 : Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 8192;
+        }
+    }
+
+    private static AsyncLogHandler.OverflowPolicy getEnvOverflowPolicy() {
+        String value = System.getenv("LOG_OVERFLOW");
+        if (value != null && value.trim().equalsIgnoreCase("DROP")) {
+            return AsyncLogHandler.OverflowPolicy.DROP;
+        }
+        return AsyncLogHandler.OverflowPolicy.BLOCK;
     }
 }
@@ -0,0 +1,77 @@
+package com.jdbc.crud;
+
+/**
+ * Point-in-time latency summary for one operation on one table. Times are in
+ * microseconds.
+ */
+public class OperationStats {
+    private final String operation;
+    private final String table;
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double p999Micros;
+    private final double maxMicros;
+
+    OperationStats(String operation, String table, LatencyHistogram histogram) {
+        this.operation = operation;
+        this.table = table;
+        this.count = histogram.getCount();
+        this.errors = histogram.getErrors();
+        this.rows = histogram.getRows();
+        this.meanMicros = histogram.getMeanNanos() / 1_000.0;
+        this.p50Micros = histogram.getValueAtQuantile(0.5) / 1_000.0;
+        this.p99Micros = histogram.getValueAtQuantile(0.99) / 1_000.0;
+        this.p999Micros = histogram.getValueAtQuantile(0.999) / 1_000.0;
+        this.maxMicros = histogram.getMaxNanos() / 1_000.0;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getP999Micros() {
+        return p999Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s count=%d errors=%d rows=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+            operation, table, count, errors, rows, meanMicros, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
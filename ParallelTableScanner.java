@@ -0,0 +1,351 @@
+package com.jdbc.crud;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scans a table in parallel by splitting it into key ranges and streaming each range
+ * on its own pooled connection. Integer keys are split evenly between MIN and MAX.
+ * Other ordered keys are split at evenly spaced keys of a random sample, so ranges
+ * hold similar row counts; only the sample is sorted. The sample is taken with
+ * TABLESAMPLE or SAMPLE where the database has it, and with a RAND() filter on
+ * MySQL, MariaDB and H2, which reads the key column once but sorts only the sample.
+ * Other databases fall back to NTILE boundaries, which sort the whole table before
+ * the scan starts. Rows with a NULL key are not returned. Requires Java 21.
+ */
+public class ParallelTableScanner {
+    private static final Logger logger = Logger.getLogger(ParallelTableScanner.class.getName());
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final int SAMPLE_KEYS_PER_RANGE = 100;
+    private static final Object END = new Object();
+
+    private final CrudOperations crudOps = new CrudOperations();
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    /** Rows buffered per range (ordered) or in total (unordered) ahead of the consumer. */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Streams all rows of the table. With {@code ordered} the rows come in key-range
+     * order (and in key order within a range only if the database returns them so);
+     * otherwise rows are handed over as soon as any range produces them. At most as
+     * many ranges as the read pools have connections run at once. Close the stream if it is
+     * not fully consumed, so the running range queries are stopped.
+     */
+    public Stream<Map<String, Object>> scan(String tableName, String[] columns, String keyColumn, int partitions,
+                                            boolean ordered) {
+        if (keyColumn == null || keyColumn.isEmpty() || partitions < 1) {
+            throw new IllegalArgumentException("Key column must be set and partitions must be at least 1");
+        }
+        List<Object> boundaries = computeBoundaries(tableName, keyColumn, partitions);
+        if (boundaries == null) {
+            return Stream.empty();
+        }
+        int rangeCount = boundaries.size() + 1;
+        // Ranges are read through the read pools, which may be replicas smaller than the primary
+        int parallelism = Math.max(1, Math.min(rangeCount, DatabaseConnectionManager.getReadPoolSize()));
+
+        Scan scan = new Scan(tableName, columns, keyColumn, boundaries, ordered, queueCapacity);
+        scan.start(parallelism);
+        logger.log(Level.INFO, "Started parallel scan of table {0}: {1} ranges, parallelism {2}",
+            new Object[]{tableName, rangeCount, parallelism});
+        return StreamSupport.stream(scan, false).onClose(scan::cancel);
+    }
+
+    /**
+     * Upper bounds of every range but the last, in ascending order, or null when the
+     * table has no rows with a key.
+     */
+    List<Object> computeBoundaries(String tableName, String keyColumn, int partitions) {
+        try {
+            Object[] minMax = queryRow("SELECT MIN(" + keyColumn + "), MAX(" + keyColumn + ") FROM " + tableName);
+            if (minMax[0] == null) {
+                return null;
+            }
+            List<Object> boundaries = new ArrayList<>();
+            if (partitions == 1) {
+                return boundaries;
+            }
+            BigInteger min = toBigInteger(minMax[0]);
+            BigInteger max = toBigInteger(minMax[1]);
+            if (min != null && max != null) {
+                BigInteger span = max.subtract(min);
+                BigInteger previous = null;
+                for (int i = 1; i < partitions; i++) {
+                    BigInteger boundary = min.add(span.multiply(BigInteger.valueOf(i))
+                        .divide(BigInteger.valueOf(partitions)));
+                    if (!boundary.equals(previous) && boundary.compareTo(max) < 0) {
+                        boundaries.add(boundary.bitLength() < 64 ? (Object) boundary.longValue() : boundary);
+                        previous = boundary;
+                    }
+                }
+                return boundaries;
+            }
+
+            return sampledBoundaries(tableName, keyColumn, partitions);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to compute scan ranges", e);
+            throw new CrudException("Failed to compute scan ranges: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Keys at evenly spaced positions of a sample of about SAMPLE_KEYS_PER_RANGE keys
+     * per range. The database sorts the sample, so boundaries follow its collation.
+     */
+    private List<Object> sampledBoundaries(String tableName, String keyColumn, int partitions) throws SQLException {
+        Dialect dialect = DatabaseConnectionManager.getDialect();
+        String source = tableName;
+        String filter = keyColumn + " IS NOT NULL";
+        long keys = ((Number) queryRow("SELECT COUNT(" + keyColumn + ") FROM " + tableName)[0]).longValue();
+        long wanted = (long) partitions * SAMPLE_KEYS_PER_RANGE;
+        if (keys > wanted) {
+            double fraction = Math.max(0.000001, (double) wanted / keys);
+            String sampled = dialect.tableSample(tableName, String.format(Locale.ROOT, "%.6f", fraction * 100));
+            String predicate = dialect.randomRowPredicate(String.format(Locale.ROOT, "%.8f", fraction));
+            if (sampled != null) {
+                source = sampled;
+            } else if (predicate != null) {
+                filter += " AND " + predicate;
+            } else {
+                return ntileBoundaries(tableName, keyColumn, partitions);
+            }
+        }
+        List<Object> sample = queryColumn("SELECT " + keyColumn + " FROM " + source + " WHERE " + filter
+            + " ORDER BY " + keyColumn);
+        List<Object> boundaries = new ArrayList<>();
+        for (int i = 1; i < partitions && !sample.isEmpty(); i++) {
+            Object boundary = sample.get((int) ((long) i * sample.size() / partitions));
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+        return boundaries;
+    }
+
+    /** Exact NTILE boundaries; sorts the whole table, so only used without sampling. */
+    private List<Object> ntileBoundaries(String tableName, String keyColumn, int partitions) throws SQLException {
+        String sql = "SELECT MAX(" + keyColumn + ") FROM (SELECT " + keyColumn + ", NTILE(" + partitions
+            + ") OVER (ORDER BY " + keyColumn + ") AS bucket FROM " + tableName + " WHERE " + keyColumn
+            + " IS NOT NULL) tiles GROUP BY bucket ORDER BY 1";
+        List<Object> bucketMaxima = queryColumn(sql);
+        List<Object> boundaries = new ArrayList<>();
+        // The last bucket ends at MAX, which the open-ended last range covers
+        for (int i = 0; i < bucketMaxima.size() - 1; i++) {
+            boundaries.add(bucketMaxima.get(i));
+        }
+        return boundaries;
+    }
+
+    private static BigInteger toBigInteger(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigInteger.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
+        }
+        if (value instanceof BigDecimal && ((BigDecimal) value).scale() <= 0) {
+            return ((BigDecimal) value).toBigInteger();
+        }
+        return null;
+    }
+
+    private static Object[] queryRow(String sql) throws SQLException {
+        Connection conn = DatabaseConnectionManager.getReadConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            Object[] values = new Object[rs.getMetaData().getColumnCount()];
+            if (rs.next()) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+            }
+            return values;
+        } finally {
+            DatabaseConnectionManager.closeConnection(conn);
+        }
+    }
+
+    private static List<Object> queryColumn(String sql) throws SQLException {
+        List<Object> values = new ArrayList<>();
+        Connection conn = DatabaseConnectionManager.getReadConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                values.add(rs.getObject(1));
+            }
+            return values;
+        } finally {
+            DatabaseConnectionManager.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Runs the range queries and hands their rows to the consuming thread. Ordered
+     * scans give every range its own queue and drain them in range order; unordered
+     * scans share one queue. Workers claim ranges in ascending order, so the range
+     * the consumer is waiting on has always been started.
+     */
+    private final class Scan extends Spliterators.AbstractSpliterator<Map<String, Object>> {
+        private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final AtomicInteger nextRange = new AtomicInteger();
+        private final String tableName;
+        private final String[] columns;
+        private final String keyColumn;
+        private final List<Object> boundaries;
+        private final int rangeCount;
+        private volatile boolean cancelled = false;
+        private volatile Throwable failure = null;
+        private int currentQueue = 0;
+        private int finishedRanges = 0;
+
+        Scan(String tableName, String[] columns, String keyColumn, List<Object> boundaries, boolean ordered,
+             int queueCapacity) {
+            super(Long.MAX_VALUE, ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL);
+            this.tableName = tableName;
+            this.columns = columns;
+            this.keyColumn = keyColumn;
+            this.boundaries = boundaries;
+            this.rangeCount = boundaries.size() + 1;
+            int queueCount = ordered ? rangeCount : 1;
+            for (int i = 0; i < queueCount; i++) {
+                queues.add(new ArrayBlockingQueue<>(queueCapacity));
+            }
+        }
+
+        void start(int parallelism) {
+            for (int i = 0; i < parallelism; i++) {
+                executor.execute(this::work);
+            }
+            executor.shutdown();
+        }
+
+        private void work() {
+            int range;
+            while ((range = nextRange.getAndIncrement()) < rangeCount) {
+                BlockingQueue<Object> queue = queues.get(Math.min(range, queues.size() - 1));
+                int claimed = range;
+                try {
+                    if (!cancelled) {
+                        AdmissionControl.run(AdmissionControl.Priority.BATCH, null, () -> streamRange(queue, claimed));
+                    }
+                } catch (Throwable t) {
+                    failure = t;
+                    cancelled = true;
+                } finally {
+                    offer(queue, END);
+                }
+            }
+        }
+
+        private void streamRange(BlockingQueue<Object> queue, int range) {
+            Object lower = range > 0 ? boundaries.get(range - 1) : null;
+            Object upper = range < boundaries.size() ? boundaries.get(range) : null;
+            String whereClause;
+            Object[] params;
+            if (lower == null && upper == null) {
+                whereClause = keyColumn + " IS NOT NULL";
+                params = new Object[0];
+            } else if (lower == null) {
+                whereClause = keyColumn + " <= ?";
+                params = new Object[]{upper};
+            } else if (upper == null) {
+                whereClause = keyColumn + " > ?";
+                params = new Object[]{lower};
+            } else {
+                whereClause = keyColumn + " > ? AND " + keyColumn + " <= ?";
+                params = new Object[]{lower, upper};
+            }
+            try (Stream<Map<String, Object>> rows = crudOps.streamRecords(tableName, columns, whereClause, params)) {
+                Iterator<Map<String, Object>> it = rows.iterator();
+                while (it.hasNext() && !cancelled) {
+                    if (!offer(queue, it.next())) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /** Blocks until there is room, giving up once the scan is cancelled. */
+        private boolean offer(BlockingQueue<Object> queue, Object item) {
+            try {
+                while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+            while (finishedRanges < rangeCount) {
+                Object item;
+                try {
+                    item = queues.get(currentQueue).poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new CrudException("Interrupted during parallel scan", e);
+                }
+                if (failure != null) {
+                    throw new CrudException("Parallel scan failed: " + failure.getMessage(), failure);
+                }
+                if (item == null) {
+                    continue;
+                }
+                if (item == END) {
+                    finishedRanges++;
+                    if (queues.size() > 1) {
+                        currentQueue++;
+                    }
+                    continue;
+                }
+                action.accept((Map<String, Object>) item);
+                return true;
+            }
+            return false;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+}
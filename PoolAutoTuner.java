@@ -0,0 +1,199 @@
+package com.jdbc.crud;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resizes a Hikari pool between configured bounds from live pool statistics. Every
+ * interval it samples active connections, threads waiting for a connection, and the
+ * mean acquire time and timeouts since the previous sample. The pool grows when
+ * callers wait: some thread was queued, the mean wait exceeded the target, or a
+ * timeout occurred. It shrinks when peak usage stayed well below the maximum. Growing
+ * needs {@code growSamples} consecutive samples under pressure and shrinking needs
+ * {@code shrinkSamples} consecutive quiet samples, so a single burst or lull does not
+ * make the size oscillate. Each change is logged with the statistics that caused it.
+ * <p>
+ * With admission control on, callers beyond the pool size queue at the admission
+ * gate instead of inside the pool, so the gate's queue depth, mean admission wait and
+ * overload rejections count as pressure too.
+ */
+public class PoolAutoTuner implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(PoolAutoTuner.class.getName());
+    private static final double SHRINK_UTILIZATION = 0.5;
+
+    private final HikariDataSource dataSource;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final int minIdleFloor;
+    private final long targetWaitNanos;
+    private final int growSamples;
+    private final int shrinkSamples;
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> task;
+
+    // Only touched by the scheduler thread
+    private long lastAcquireCount;
+    private long lastAcquireNanos;
+    private long lastTimeouts;
+    private long lastAdmissions;
+    private long lastAdmissionWaitNanos;
+    private long lastRejections;
+    private int pressureStreak;
+    private int quietStreak;
+    private int peakActive;
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    public PoolAutoTuner(HikariDataSource dataSource, int minPoolSize, int maxPoolSize, long targetWait,
+                         TimeUnit unit, int growSamples, int shrinkSamples) {
+        if (dataSource == null || minPoolSize < 1 || maxPoolSize < minPoolSize || growSamples < 1
+            || shrinkSamples < 1) {
+            throw new IllegalArgumentException(
+                "Pool must be set, 1 <= minPoolSize <= maxPoolSize and sample counts at least 1");
+        }
+        this.dataSource = dataSource;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.minIdleFloor = Math.min(dataSource.getHikariConfigMXBean().getMinimumIdle(), minPoolSize);
+        this.targetWaitNanos = unit.toNanos(targetWait);
+        this.growSamples = growSamples;
+        this.shrinkSamples = shrinkSamples;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-autotuner-" + dataSource.getPoolName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void start(long interval, TimeUnit unit) {
+        if (task != null) {
+            throw new IllegalStateException("Autotuner already started");
+        }
+        LatencyHistogram acquire = CrudMetrics.getAcquireHistogram(dataSource.getPoolName());
+        if (acquire != null) {
+            lastAcquireCount = acquire.getCount();
+            lastAcquireNanos = acquire.getTotalNanos();
+        }
+        lastTimeouts = CrudMetrics.getTimeoutCount(dataSource.getPoolName());
+        AdmissionControl.Load load = AdmissionControl.getLoad(dataSource.getPoolName());
+        if (load != null) {
+            lastAdmissions = load.admissions;
+            lastAdmissionWaitNanos = load.waitNanos;
+            lastRejections = load.rejections;
+        }
+        task = scheduler.scheduleWithFixedDelay(this::sampleSafely, interval, interval, unit);
+        logger.log(Level.INFO, "Autotuning pool {0} between {1} and {2} connections",
+            new Object[]{dataSource.getPoolName(), minPoolSize, maxPoolSize});
+    }
+
+    @Override
+    public synchronized void close() {
+        scheduler.shutdownNow();
+        task = null;
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            // A failed sample must not cancel the schedule
+            logger.log(Level.WARNING, "Pool autotuner sample failed", e);
+        }
+    }
+
+    /** Takes one sample and resizes the pool if the hysteresis allows it. */
+    void sample() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        if (pool == null || dataSource.isClosed()) {
+            return;
+        }
+        int active = pool.getActiveConnections();
+        int waiting = pool.getThreadsAwaitingConnection();
+        int currentMax = config.getMaximumPoolSize();
+
+        long acquires = 0;
+        long meanWaitNanos = 0;
+        LatencyHistogram acquire = CrudMetrics.getAcquireHistogram(dataSource.getPoolName());
+        if (acquire != null) {
+            long count = acquire.getCount();
+            long nanos = acquire.getTotalNanos();
+            acquires = count - lastAcquireCount;
+            // Negative after CrudMetrics.reset(); treat the window as empty
+            meanWaitNanos = acquires > 0 && nanos >= lastAcquireNanos ? (nanos - lastAcquireNanos) / acquires : 0;
+            lastAcquireCount = count;
+            lastAcquireNanos = nanos;
+        }
+        long timeoutTotal = CrudMetrics.getTimeoutCount(dataSource.getPoolName());
+        long timeouts = Math.max(0, timeoutTotal - lastTimeouts);
+        lastTimeouts = timeoutTotal;
+
+        // Callers held back by admission control wait at the gate, not in the pool
+        int queued = 0;
+        long rejections = 0;
+        AdmissionControl.Load load = AdmissionControl.getLoad(dataSource.getPoolName());
+        if (load != null) {
+            queued = load.queued;
+            long admissions = load.admissions - lastAdmissions;
+            if (admissions > 0) {
+                meanWaitNanos += (load.waitNanos - lastAdmissionWaitNanos) / admissions;
+            }
+            rejections = Math.max(0, load.rejections - lastRejections);
+            lastAdmissions = load.admissions;
+            lastAdmissionWaitNanos = load.waitNanos;
+            lastRejections = load.rejections;
+        }
+        waiting += queued;
+
+        // Peak of the current quiet stretch; a busy sample starts a new stretch
+        peakActive = Math.max(peakActive, active);
+        boolean pressure = waiting > 0 || timeouts > 0 || rejections > 0 || meanWaitNanos > targetWaitNanos;
+        boolean quiet = !pressure && peakActive < currentMax * SHRINK_UTILIZATION;
+        pressureStreak = pressure ? pressureStreak + 1 : 0;
+        quietStreak = quiet ? quietStreak + 1 : 0;
+        if (!quiet) {
+            peakActive = active;
+        }
+
+        if (pressureStreak >= growSamples && currentMax < maxPoolSize) {
+            int newMax = Math.min(maxPoolSize, currentMax + Math.max(Math.max(1, currentMax / 4), waiting));
+            resize(config, currentMax, newMax, String.format(
+                "active=%d waiting=%d (%d at admission) meanWait=%.2fms timeouts=%d rejected=%d over %d acquires",
+                active, waiting, queued, meanWaitNanos / 1_000_000.0, timeouts, rejections, acquires));
+        } else if (quietStreak >= shrinkSamples && currentMax > minPoolSize) {
+            int newMax = Math.max(Math.max(minPoolSize, peakActive + 1), currentMax - Math.max(1, currentMax / 8));
+            if (newMax < currentMax) {
+                resize(config, currentMax, newMax, String.format(
+                    "peakActive=%d over %d samples, meanWait=%.2fms",
+                    peakActive, quietStreak, meanWaitNanos / 1_000_000.0));
+            }
+        }
+    }
+
+    private void resize(HikariConfigMXBean config, int currentMax, int newMax, String reason) {
+        int currentMinIdle = config.getMinimumIdle();
+        // Keep enough idle connections for the recent peak so the next burst finds them open
+        int newMinIdle = Math.min(newMax, Math.max(minIdleFloor, peakActive));
+        // Hikari requires minimumIdle <= maximumPoolSize at every step
+        if (newMax > currentMax) {
+            config.setMaximumPoolSize(newMax);
+            config.setMinimumIdle(newMinIdle);
+        } else {
+            config.setMinimumIdle(newMinIdle);
+            config.setMaximumPoolSize(newMax);
+        }
+        logger.log(Level.INFO, "Pool {0} resized: maximumPoolSize {1} -> {2}, minimumIdle {3} -> {4} ({5})",
+            new Object[]{dataSource.getPoolName(), currentMax, newMax, currentMinIdle, newMinIdle, reason});
+        pressureStreak = 0;
+        quietStreak = 0;
+    }
+}
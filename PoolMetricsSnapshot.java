@@ -0,0 +1,113 @@
+package com.jdbc.crud;
+
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Point-in-time view of one Hikari pool as seen through its metrics tracker.
+ * Acquire times are in microseconds, usage times in milliseconds.
+ */
+public class PoolMetricsSnapshot {
+    private final String poolName;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int pendingThreads;
+    private final int maxConnections;
+    private final long acquireCount;
+    private final double acquireP50Micros;
+    private final double acquireP99Micros;
+    private final double acquireMaxMicros;
+    private final double usageP50Millis;
+    private final double usageP99Millis;
+    private final double usageMaxMillis;
+    private final long connectionsCreated;
+    private final long timeouts;
+
+    PoolMetricsSnapshot(String poolName, PoolStats poolStats, LatencyHistogram acquire,
+                        LatencyHistogram usage, LatencyHistogram creation, long timeouts) {
+        this.poolName = poolName;
+        this.activeConnections = poolStats.getActiveConnections();
+        this.idleConnections = poolStats.getIdleConnections();
+        this.totalConnections = poolStats.getTotalConnections();
+        this.pendingThreads = poolStats.getPendingThreads();
+        this.maxConnections = poolStats.getMaxConnections();
+        this.acquireCount = acquire.getCount();
+        this.acquireP50Micros = acquire.getValueAtQuantile(0.5) / 1_000.0;
+        this.acquireP99Micros = acquire.getValueAtQuantile(0.99) / 1_000.0;
+        this.acquireMaxMicros = acquire.getMaxNanos() / 1_000.0;
+        this.usageP50Millis = usage.getValueAtQuantile(0.5) / 1_000_000.0;
+        this.usageP99Millis = usage.getValueAtQuantile(0.99) / 1_000_000.0;
+        this.usageMaxMillis = usage.getMaxNanos() / 1_000_000.0;
+        this.connectionsCreated = creation.getCount();
+        this.timeouts = timeouts;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getPendingThreads() {
+        return pendingThreads;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public double getAcquireP50Micros() {
+        return acquireP50Micros;
+    }
+
+    public double getAcquireP99Micros() {
+        return acquireP99Micros;
+    }
+
+    public double getAcquireMaxMicros() {
+        return acquireMaxMicros;
+    }
+
+    public double getUsageP50Millis() {
+        return usageP50Millis;
+    }
+
+    public double getUsageP99Millis() {
+        return usageP99Millis;
+    }
+
+    public double getUsageMaxMillis() {
+        return usageMaxMillis;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s active=%d idle=%d total=%d/%d pending=%d acquire p50=%.1fus p99=%.1fus max=%.1fus "
+                + "usage p50=%.1fms p99=%.1fms created=%d timeouts=%d",
+            poolName, activeConnections, idleConnections, totalConnections, maxConnections, pendingThreads,
+            acquireP50Micros, acquireP99Micros, acquireMaxMicros, usageP50Millis, usageP99Millis,
+            connectionsCreated, timeouts);
+    }
+}
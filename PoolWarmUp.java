@@ -0,0 +1,79 @@
+package com.jdbc.crud;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Opens pooled connections ahead of traffic and prepares hot statements on them.
+ * Every connection is borrowed by its own virtual thread and held until all of them
+ * are open, so the pool has to create distinct connections instead of handing the
+ * same idle one out again. With the driver statement cache enabled, the prepared
+ * statements stay cached on each connection after they are closed.
+ */
+final class PoolWarmUp {
+    private static final Logger logger = Logger.getLogger(PoolWarmUp.class.getName());
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    private PoolWarmUp() {
+        // Private constructor to prevent instantiation
+    }
+
+    static Duration run(List<HikariDataSource> pools, List<String> statements) {
+        long start = System.nanoTime();
+        AtomicInteger connections = new AtomicInteger();
+        AtomicInteger prepared = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (HikariDataSource pool : pools) {
+                int count = Math.max(1, Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize()));
+                CountDownLatch allOpen = new CountDownLatch(count);
+                long holdMillis = pool.getConnectionTimeout();
+                for (int i = 0; i < count; i++) {
+                    executor.submit(() -> {
+                        try (Connection conn = pool.getConnection()) {
+                            connections.incrementAndGet();
+                            for (String sql : statements) {
+                                try {
+                                    PreparedStatement pstmt = conn.prepareStatement(sql);
+                                    pstmt.close();
+                                    prepared.incrementAndGet();
+                                } catch (SQLException e) {
+                                    failures.incrementAndGet();
+                                    logger.log(Level.WARNING, "Could not prepare warm-up statement: " + sql, e);
+                                }
+                            }
+                            allOpen.countDown();
+                            allOpen.await(holdMillis, TimeUnit.MILLISECONDS);
+                        } catch (SQLException e) {
+                            allOpen.countDown();
+                            failures.incrementAndGet();
+                            logger.log(Level.WARNING, "Could not open warm-up connection in pool "
+                                + pool.getPoolName(), e);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return null;
+                    });
+                }
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        logger.log(Level.INFO, "Warm-up finished in {0} ms: {1} connections, {2} statements prepared, {3} failures",
+            new Object[]{elapsed.toMillis(), connections.get(), prepared.get(), failures.get()});
+        return elapsed;
+    }
+}
@@ -0,0 +1,357 @@
+package com.jdbc.crud;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LRU cache of query results keyed by normalized SQL text and bind parameters.
+ * Each entry remembers the version of every table it read; a write to a table bumps
+ * that table's version, which makes all entries reading it stale. Because versions
+ * are captured before the query runs, a result that raced with a write is never
+ * served afterwards. Results read through a named pool (a shard) are kept apart from
+ * those of the primary and of other pools: keys and table versions carry the pool
+ * name, so equal queries on different databases never share an entry.
+ */
+public class QueryResultCache {
+    private static final Pattern QUOTED = Pattern.compile("'(?:[^']|'')*'|\"[^\"]*\"");
+    private static final Pattern SELECT = Pattern.compile("\\bSELECT\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE_REFERENCE =
+        Pattern.compile("\\b(?:FROM|JOIN)\\s+([A-Za-z_][\\w.$]*)?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FROM_LIST = Pattern.compile(
+        "\\bFROM\\b(.*?)(?:\\b(?:WHERE|GROUP|HAVING|ORDER|LIMIT|OFFSET|FETCH|UNION|WINDOW|FOR)\\b|$)",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Set<String> cacheableTables = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QueryResultCache(int maxEntries, long ttl, TimeUnit unit) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > QueryResultCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Restricts caching to the given tables. Until a table is added every table is
+     * cacheable.
+     */
+    public void addCacheableTable(String tableName) {
+        cacheableTables.add(normalizeTable(tableName));
+    }
+
+    public boolean isCacheable(String... tables) {
+        if (cacheableTables.isEmpty()) {
+            return true;
+        }
+        for (String table : tables) {
+            if (!cacheableTables.contains(normalizeTable(table))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Current versions of the given tables in the pool (null for the primary);
+     * capture before running the query.
+     */
+    long[] stamp(String pool, String... tables) {
+        long[] versions = new long[tables.length + 1];
+        versions[0] = epoch.get();
+        for (int i = 0; i < tables.length; i++) {
+            versions[i + 1] = version(scoped(pool, tables[i])).get();
+        }
+        return versions;
+    }
+
+    List<Map<String, Object>> get(String pool, String sql, Object[] params) {
+        Key key = new Key(pool, normalizeSql(sql), params);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.createdNanos > ttlNanos) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            } else if (entry != null && !isCurrent(entry)) {
+                entries.remove(key);
+                invalidations.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyRows(entry.rows);
+    }
+
+    void put(String pool, String sql, Object[] params, String[] tables, long[] versions,
+             List<Map<String, Object>> rows) {
+        Key key = new Key(pool, normalizeSql(sql), params != null ? params.clone() : null);
+        String[] scopedTables = new String[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            scopedTables[i] = scoped(pool, tables[i]);
+        }
+        Entry entry = new Entry(scopedTables, versions, copyRows(rows), System.nanoTime());
+        if (!isCurrent(entry)) {
+            // A write to one of the tables finished while the query was running
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(String tableName) {
+        version(tableName).incrementAndGet();
+    }
+
+    /** Invalidates the table in the named pool, or in the primary when the pool is null. */
+    void invalidate(String pool, String tableName) {
+        version(scoped(pool, tableName)).incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Tables referenced after FROM or JOIN in the statement. Used to tag raw join
+     * queries. Returns no tables, which makes the statement uncacheable, when not
+     * every table read can be told from the text: a nested SELECT, a comma in the
+     * FROM list, or a FROM or JOIN not followed by a plain table name.
+     */
+    static String[] tablesOf(String sql) {
+        String text = QUOTED.matcher(sql).replaceAll("''");
+        Matcher selects = SELECT.matcher(text);
+        if (selects.find() && selects.find()) {
+            return new String[0];
+        }
+        Matcher fromList = FROM_LIST.matcher(text);
+        while (fromList.find()) {
+            if (fromList.group(1).indexOf(',') >= 0) {
+                return new String[0];
+            }
+        }
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(text);
+        while (matcher.find()) {
+            if (matcher.group(1) == null) {
+                return new String[0];
+            }
+            tables.add(matcher.group(1));
+        }
+        return tables.toArray(new String[0]);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /** Entries removed to stay within the size limit. */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /** Entries removed because they outlived the TTL. */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /** Entries removed because a table they read was written. */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Drops entries that have expired or been invalidated. Optional housekeeping;
+     * stale entries are otherwise removed when they are next looked up or evicted.
+     */
+    public void purgeStale() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (now - entry.createdNanos > ttlNanos) {
+                    it.remove();
+                    expirations.increment();
+                } else if (!isCurrent(entry)) {
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    private boolean isCurrent(Entry entry) {
+        if (entry.versions[0] != epoch.get()) {
+            return false;
+        }
+        for (int i = 0; i < entry.tables.length; i++) {
+            if (entry.versions[i + 1] != version(entry.tables[i]).get()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AtomicLong version(String tableName) {
+        String table = normalizeTable(tableName);
+        AtomicLong version = tableVersions.get(table);
+        return version != null ? version : tableVersions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    private static String scoped(String pool, String tableName) {
+        return pool != null ? pool + '/' + tableName : tableName;
+    }
+
+    private static String normalizeTable(String tableName) {
+        return tableName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Collapses runs of whitespace to one space, except inside quoted literals and
+     * identifiers, where whitespace is part of the value.
+     */
+    private static String normalizeSql(String sql) {
+        String trimmed = sql.trim();
+        StringBuilder normalized = new StringBuilder(trimmed.length());
+        char quote = 0;
+        boolean space = false;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (quote != 0) {
+                normalized.append(c);
+                if (c == quote) {
+                    // A doubled quote closes and reopens, which keeps it inside
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                space = true;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                if (c == '\'' || c == '"') {
+                    quote = c;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static List<Map<String, Object>> copyRows(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> copy = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            copy.add(row instanceof Row ? ((Row) row).copy() : new LinkedHashMap<>(row));
+        }
+        return copy;
+    }
+
+    private static final class Key {
+        private final String pool;
+        private final String sql;
+        private final Object[] params;
+        private final int hash;
+
+        Key(String pool, String sql, Object[] params) {
+            this.pool = pool;
+            this.sql = sql;
+            this.params = params;
+            this.hash = 31 * (31 * Objects.hashCode(pool) + sql.hashCode()) + Arrays.hashCode(params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && Objects.equals(pool, other.pool) && sql.equals(other.sql)
+                && Arrays.equals(params, other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final String[] tables;
+        private final long[] versions;
+        private final List<Map<String, Object>> rows;
+        private final long createdNanos;
+
+        Entry(String[] tables, long[] versions, List<Map<String, Object>> rows, long createdNanos) {
+            this.tables = tables;
+            this.versions = versions;
+            this.rows = Collections.unmodifiableList(rows);
+            this.createdNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.jdbc.crud;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily walks an open ResultSet one row at a time. The statement, result set and
+ * the close action for the connection run exactly once, either when the stream is
+ * closed or when the last row has been consumed.
+ */
+class ResultSetStream extends Spliterators.AbstractSpliterator<Map<String, Object>> implements Runnable {
+    private static final Logger logger = Logger.getLogger(ResultSetStream.class.getName());
+
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowSchema schema;
+    private final CloseAction closeAction;
+    private final Consumer<SQLException> errorHandler;
+    private long rowCount = 0;
+    private boolean closed = false;
+    private boolean failed = false;
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    interface CloseAction {
+        void closed(long rowCount, boolean failed);
+    }
+
+    private ResultSetStream(PreparedStatement statement, ResultSet resultSet, RowSchema schema,
+                            CloseAction closeAction, Consumer<SQLException> errorHandler) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.schema = schema;
+        this.closeAction = closeAction;
+        this.errorHandler = errorHandler;
+    }
+
+    static Stream<Map<String, Object>> open(PreparedStatement statement, CloseAction closeAction,
+                                            Consumer<SQLException> errorHandler) throws SQLException {
+        ResultSet resultSet = statement.executeQuery();
+        RowSchema schema = RowSchema.from(resultSet.getMetaData());
+        ResultSetStream source = new ResultSetStream(statement, resultSet, schema, closeAction, errorHandler);
+        return StreamSupport.stream(source, false).onClose(source);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+        if (closed) {
+            return false;
+        }
+        Map<String, Object> row;
+        try {
+            if (!resultSet.next()) {
+                run();
+                return false;
+            }
+            row = Row.read(schema, resultSet);
+        } catch (SQLException e) {
+            failed = true;
+            run();
+            errorHandler.accept(e);
+            throw new CrudException("Failed to stream records: " + e.getMessage(), e);
+        }
+        rowCount++;
+        action.accept(row);
+        return true;
+    }
+
+    /**
+     * Closes the cursor and releases the connection. Safe to call more than once.
+     */
+    @Override
+    public void run() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing result set", e);
+        }
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing statement", e);
+        }
+        closeAction.closed(rowCount, failed);
+        if (logger.isLoggable(Level.INFO)) {
+            logger.log(Level.INFO, "Stream closed after {0} records", rowCount);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.jdbc.crud;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A single result row stored as a flat value array against a shared {@link RowSchema}.
+ * Existing columns are overwritten in place. Adding or removing a column copies the
+ * row into a LinkedHashMap first, which then backs the map view; only rows changed
+ * that way pay for a map of their own.
+ */
+public final class Row extends AbstractMap<String, Object> {
+    private final RowSchema schema;
+    private final Object[] values;
+    private Map<String, Object> copied;
+
+    Row(RowSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    static Row read(RowSchema schema, ResultSet rs) throws SQLException {
+        Object[] values = new Object[schema.getColumnCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rs.getObject(i + 1);
+        }
+        return new Row(schema, values);
+    }
+
+    /** Copy sharing the schema but not the values, so changes to one do not show in the other. */
+    Row copy() {
+        Row copy = new Row(schema, values.clone());
+        if (copied != null) {
+            copy.copied = new LinkedHashMap<>(copied);
+        }
+        return copy;
+    }
+
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Value of the column at the zero-based position in the result set. Reflects puts
+     * to that column, but not columns added or removed through the map.
+     */
+    public Object get(int columnIndex) {
+        return values[columnIndex];
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (copied != null) {
+            return copied.get(key);
+        }
+        int index = schema.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return copied != null ? copied.containsKey(key) : schema.indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return copied != null ? copied.size() : schema.size();
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = schema.indexOf(key);
+        if (copied == null) {
+            if (index >= 0) {
+                Object previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            copied = new LinkedHashMap<>(this);
+        }
+        if (index >= 0) {
+            values[index] = value;
+        }
+        return copied.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (copied == null) {
+            if (!containsKey(key)) {
+                return null;
+            }
+            copied = new LinkedHashMap<>(this);
+        }
+        return copied.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        copied = new LinkedHashMap<>();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (copied != null) {
+            return copied.entrySet();
+        }
+        // The view stays valid when the row is copied later, e.g. by its own iterator
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                if (copied != null) {
+                    return copied.entrySet().iterator();
+                }
+                return new Iterator<>() {
+                    private int position = 0;
+                    private String lastKey;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < schema.size();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int keyPosition = position++;
+                        lastKey = schema.getKey(keyPosition);
+                        return new RowEntry(lastKey, schema.getKeyIndex(keyPosition));
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (lastKey == null) {
+                            throw new IllegalStateException();
+                        }
+                        Row.this.remove(lastKey);
+                        lastKey = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Row.this.size();
+            }
+        };
+    }
+
+    private final class RowEntry implements Entry<String, Object> {
+        private final String key;
+        private final int index;
+
+        RowEntry(String key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return copied != null ? copied.get(key) : values[index];
+        }
+
+        /** Writes to the copied map once the row has one, like {@link Row#put}. */
+        @Override
+        public Object setValue(Object value) {
+            Object previous = getValue();
+            values[index] = value;
+            if (copied != null) {
+                copied.put(key, value);
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return key.equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.jdbc.crud;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Column names of a result set and their positions, resolved once and shared by
+ * every {@link Row} read from it. A name that occurs more than once (typical for
+ * joins) maps to its last occurrence, matching what a HashMap row used to hold.
+ */
+public final class RowSchema {
+    private final int columnCount;
+    private final String[] keys;
+    private final int[] keyIndexes;
+    private final Map<String, Integer> indexByName;
+
+    RowSchema(String[] columnNames) {
+        this.columnCount = columnNames.length;
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            positions.remove(columnNames[i]);
+            positions.put(columnNames[i], i);
+        }
+        this.keys = new String[positions.size()];
+        this.keyIndexes = new int[positions.size()];
+        int k = 0;
+        for (Map.Entry<String, Integer> entry : positions.entrySet()) {
+            keys[k] = entry.getKey();
+            keyIndexes[k] = entry.getValue();
+            k++;
+        }
+        this.indexByName = new HashMap<>(positions);
+    }
+
+    public static RowSchema from(ResultSetMetaData metaData) throws SQLException {
+        String[] columnNames = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = metaData.getColumnName(i + 1);
+        }
+        return new RowSchema(columnNames);
+    }
+
+    /** Number of columns in the result set, including duplicates. */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /** Number of distinct column names, i.e. the size of each row as a map. */
+    public int size() {
+        return keys.length;
+    }
+
+    public String getKey(int keyPosition) {
+        return keys[keyPosition];
+    }
+
+    int getKeyIndex(int keyPosition) {
+        return keyIndexes[keyPosition];
+    }
+
+    /** Zero-based column position for the name, or -1 if the result set has no such column. */
+    public int indexOf(Object columnName) {
+        Integer index = indexByName.get(columnName);
+        return index != null ? index : -1;
+    }
+}
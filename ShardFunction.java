@@ -0,0 +1,48 @@
+package com.jdbc.crud;
+
+import java.math.BigDecimal;
+
+/**
+ * Picks the shard that holds a shard key. Must return the same shard for the same
+ * key every time, on every process.
+ */
+@FunctionalInterface
+public interface ShardFunction {
+    /**
+     * Returns the shard index, from 0 to {@code shardCount - 1}, for a non-null key.
+     */
+    int shardFor(Object key, int shardCount);
+
+    /**
+     * Spreads keys evenly by hash. Integral numbers hash by value, so a key read back
+     * as a {@code Long} or a {@code BigDecimal} lands on the same shard as the
+     * {@code Integer} it was written with; other keys hash by their string form.
+     */
+    static ShardFunction hash() {
+        return (key, shardCount) -> (int) Math.floorMod(mix(keyHash(key)), (long) shardCount);
+    }
+
+    private static long keyHash(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        if (key instanceof Number && !(key instanceof Double || key instanceof Float)) {
+            try {
+                return new BigDecimal(key.toString()).longValueExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                // Fractional or too large for a long; hash the text
+            }
+        }
+        return key.toString().hashCode();
+    }
+
+    /** Final mixing step of MurmurHash3, so sequential keys spread across shards. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb53fe1a485e3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
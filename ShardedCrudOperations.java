@@ -0,0 +1,295 @@
+package com.jdbc.crud;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * CRUD operations on tables sharded across named pools by one key column. Each
+ * shard is a pool registered with {@link DatabaseConnectionManager#addPool}, and the
+ * shard function maps a key value to its shard. Single-row writes find the key among
+ * their column values; reads, updates and deletes take the key explicitly. Batch
+ * inserts are split by shard and the shards are written in parallel. There is no
+ * transaction across shards: when one shard fails, the others may already have
+ * committed. Transactions within one shard go through {@link #forKey}.
+ */
+public class ShardedCrudOperations {
+    private static final Logger logger = Logger.getLogger(ShardedCrudOperations.class.getName());
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final Object END = new Object();
+
+    private final List<CrudOperations> shards = new ArrayList<>();
+    private final String keyColumn;
+    private final ShardFunction shardFunction;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    /**
+     * Shards by {@link ShardFunction#hash()}. The order of the pool names is part of
+     * the sharding scheme and must not change while data lives in the shards.
+     */
+    public ShardedCrudOperations(List<String> poolNames, String keyColumn) {
+        this(poolNames, keyColumn, ShardFunction.hash());
+    }
+
+    public ShardedCrudOperations(List<String> poolNames, String keyColumn, ShardFunction shardFunction) {
+        if (poolNames == null || poolNames.isEmpty() || keyColumn == null || keyColumn.isEmpty()
+                || shardFunction == null) {
+            throw new IllegalArgumentException("Pool names, key column and shard function must be set");
+        }
+        for (String poolName : poolNames) {
+            shards.add(new CrudOperations(poolName));
+        }
+        this.keyColumn = keyColumn;
+        this.shardFunction = shardFunction;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    /** Rows buffered ahead of the consumer of {@link #streamAll}. */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int shardFor(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Shard key must not be null");
+        }
+        int shard = shardFunction.shardFor(key, shards.size());
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalStateException("Shard function returned " + shard + " for " + shards.size() + " shards");
+        }
+        return shard;
+    }
+
+    /** Operations on the shard holding the key, for transactions and everything else. */
+    public CrudOperations forKey(Object key) {
+        return shards.get(shardFor(key));
+    }
+
+    public CrudOperations shard(int index) {
+        return shards.get(index);
+    }
+
+    public void createRecord(String tableName, String[] columns, Object[] values) {
+        if (columns == null || values == null || columns.length != values.length) {
+            throw new IllegalArgumentException("Columns and values must be non-null and of equal length");
+        }
+        forKey(values[keyIndex(columns)]).createRecord(tableName, columns, values);
+    }
+
+    /**
+     * Splits the rows by shard and inserts each shard's rows with
+     * {@link CrudOperations#createRecords} on its own virtual thread. Waits for all
+     * shards; if any failed, the first failure is thrown with the others suppressed.
+     *
+     * @return the number of rows inserted per shard, in shard order
+     */
+    public int[] createRecords(String tableName, String[] columns, Iterable<Object[]> rows) {
+        if (columns == null || columns.length == 0 || rows == null) {
+            throw new IllegalArgumentException("Columns and rows must be non-null");
+        }
+        int keyIndex = keyIndex(columns);
+        List<List<Object[]>> rowsByShard = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            rowsByShard.add(new ArrayList<>());
+        }
+        for (Object[] values : rows) {
+            if (values == null || values.length != columns.length) {
+                throw new IllegalArgumentException("Each row must have exactly " + columns.length + " values");
+            }
+            rowsByShard.get(shardFor(values[keyIndex])).add(values);
+        }
+
+        int[] inserted = new int[shards.size()];
+        List<Future<int[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < shards.size(); i++) {
+                CrudOperations shard = shards.get(i);
+                List<Object[]> shardRows = rowsByShard.get(i);
+                results.add(shardRows.isEmpty()
+                    ? null
+                    : executor.submit(() -> shard.createRecords(tableName, columns, shardRows)));
+            }
+        }
+        RuntimeException failure = null;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                continue;
+            }
+            try {
+                for (int count : results.get(i).get()) {
+                    inserted[i] += count;
+                }
+            } catch (ExecutionException | InterruptedException e) {
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                RuntimeException shardFailure = cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new CrudException("Insert into shard " + shards.get(i).getPoolName() + " failed: "
+                        + cause.getMessage(), cause);
+                if (failure == null) {
+                    failure = shardFailure;
+                } else {
+                    failure.addSuppressed(shardFailure);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return inserted;
+    }
+
+    public List<Map<String, Object>> readRecords(Object shardKey, String tableName, String[] columns,
+                                                 String whereClause, Object... whereParams) {
+        return forKey(shardKey).readRecords(tableName, columns, whereClause, whereParams);
+    }
+
+    public void updateRecord(Object shardKey, String tableName, String[] columns, Object[] values,
+                             String whereClause, Object... whereParams) {
+        forKey(shardKey).updateRecord(tableName, columns, values, whereClause, whereParams);
+    }
+
+    public void deleteRecord(Object shardKey, String tableName, String whereClause, Object... whereParams) {
+        forKey(shardKey).deleteRecord(tableName, whereClause, whereParams);
+    }
+
+    /**
+     * Runs the query on every shard at once and merges the rows into one stream, in
+     * no particular order. Each shard streams on its own connection and virtual
+     * thread. Close the stream if it is not fully consumed, so the shard queries are
+     * stopped.
+     */
+    public Stream<Map<String, Object>> streamAll(String tableName, String[] columns, String whereClause,
+                                                 Object... whereParams) {
+        Gather gather = new Gather(queueCapacity);
+        gather.start(tableName, columns, whereClause, whereParams);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, "Scatter-gather read of table {0} across {1} shards",
+                new Object[]{tableName, shards.size()});
+        }
+        return StreamSupport.stream(gather, false).onClose(gather::cancel);
+    }
+
+    private int keyIndex(String[] columns) {
+        for (int i = 0; i < columns.length; i++) {
+            if (keyColumn.equalsIgnoreCase(columns[i])) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Columns must include the shard key column " + keyColumn);
+    }
+
+    /**
+     * Feeds the rows of all shards into one queue for the consuming thread; each
+     * shard ends its part with an END marker.
+     */
+    private final class Gather extends Spliterators.AbstractSpliterator<Map<String, Object>> {
+        private final BlockingQueue<Object> queue;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private volatile boolean cancelled = false;
+        private volatile Throwable failure = null;
+        private int finishedShards = 0;
+
+        Gather(int queueCapacity) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL);
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void start(String tableName, String[] columns, String whereClause, Object[] whereParams) {
+            for (CrudOperations shard : shards) {
+                executor.execute(() -> {
+                    try (Stream<Map<String, Object>> rows =
+                             shard.streamRecords(tableName, columns, whereClause, whereParams)) {
+                        Iterator<Map<String, Object>> it = rows.iterator();
+                        while (it.hasNext() && !cancelled) {
+                            if (!offer(it.next())) {
+                                return;
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure = t;
+                        cancelled = true;
+                    } finally {
+                        offer(END);
+                    }
+                });
+            }
+            executor.shutdown();
+        }
+
+        /** Blocks until there is room, giving up once the read is cancelled. */
+        private boolean offer(Object item) {
+            try {
+                while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+            while (finishedShards < shards.size()) {
+                Object item;
+                try {
+                    item = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new CrudException("Interrupted during scatter-gather read", e);
+                }
+                if (failure != null) {
+                    throw new CrudException("Scatter-gather read failed: " + failure.getMessage(), failure);
+                }
+                if (item == null) {
+                    continue;
+                }
+                if (item == END) {
+                    finishedShards++;
+                    continue;
+                }
+                action.accept((Map<String, Object>) item);
+                return true;
+            }
+            return false;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.jdbc.crud;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of generated SQL text keyed by operation, table, column list,
+ * where clause and parameter count. Lookups are lock-free; once the cache is full
+ * an arbitrary entry is evicted to make room, which is enough for the small, fixed
+ * set of statement shapes an application normally uses.
+ */
+public class SqlTemplateCache {
+    public enum Operation {
+        INSERT, SELECT, UPDATE, DELETE, CALL
+    }
+
+    private final int maxEntries;
+    private final Map<Key, String> templates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SqlTemplateCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    String get(Operation operation, String tableName, String[] columns, String whereClause, int paramCount) {
+        String sql = templates.get(new Key(operation, tableName, columns, whereClause, paramCount));
+        if (sql != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return sql;
+    }
+
+    void put(Operation operation, String tableName, String[] columns, String whereClause, int paramCount,
+             String sql) {
+        if (templates.size() >= maxEntries) {
+            Iterator<Key> keys = templates.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        }
+        // Copy the column array so later changes by the caller cannot corrupt the key
+        String[] columnsCopy = columns != null ? columns.clone() : null;
+        templates.put(new Key(operation, tableName, columnsCopy, whereClause, paramCount), sql);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+
+    private static final class Key {
+        private final Operation operation;
+        private final String tableName;
+        private final String[] columns;
+        private final String whereClause;
+        private final int paramCount;
+        private final int hash;
+
+        Key(Operation operation, String tableName, String[] columns, String whereClause, int paramCount) {
+            this.operation = operation;
+            this.tableName = tableName;
+            this.columns = columns;
+            this.whereClause = whereClause;
+            this.paramCount = paramCount;
+            this.hash = 31 * (31 * (31 * (31 * operation.hashCode() + Objects.hashCode(tableName))
+                + Arrays.hashCode(columns)) + Objects.hashCode(whereClause)) + paramCount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                && operation == other.operation
+                && paramCount == other.paramCount
+                && Objects.equals(tableName, other.tableName)
+                && Arrays.equals(columns, other.columns)
+                && Objects.equals(whereClause, other.whereClause);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
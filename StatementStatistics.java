@@ -0,0 +1,243 @@
+package com.jdbc.crud;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Statistics per statement fingerprint: the SQL text with string and number
+ * literals replaced by {@code ?} and placeholder lists collapsed, so
+ * {@code id IN (1, 2, 3)} and {@code id IN (?, ?)} count as the same statement.
+ * Statements slower than DB_SLOW_QUERY_MS (default 1000, 0 turns it off) are written
+ * to the {@code com.jdbc.crud.SlowQueryLog} logger. With DB_SLOW_QUERY_EXPLAIN set,
+ * slow SELECTs are also explained on a background thread, at most once a minute per
+ * fingerprint, where the dialect has a plain EXPLAIN.
+ */
+final class StatementStatistics {
+    private static final Logger logger = Logger.getLogger(StatementStatistics.class.getName());
+    private static final Logger slowQueryLog = Logger.getLogger("com.jdbc.crud.SlowQueryLog");
+    private static final int MAX_FINGERPRINTS = 1000;
+    private static final int MAX_CACHED_SQL = 4096;
+    private static final String OTHER = "<other statements>";
+    private static final long EXPLAIN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern REPEATED_LISTS =
+        Pattern.compile("(\\(\\?, \\.\\.\\.\\))(?:\\s*,\\s*\\(\\?, \\.\\.\\.\\))+");
+
+    // Least recently used SQL goes first, so hot statements stay cached
+    private static final Map<String, String> fingerprintBySql = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_SQL;
+        }
+    };
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final long slowThresholdNanos =
+        TimeUnit.MILLISECONDS.toNanos(DatabaseConnectionManager.getEnvInt("DB_SLOW_QUERY_MS", 1000));
+    private static final boolean explainSlowQueries =
+        DatabaseConnectionManager.getEnvBoolean("DB_SLOW_QUERY_EXPLAIN", false);
+    private static final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(16), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+
+    static {
+        LoggerUtil.configureLogger(logger);
+        LoggerUtil.configureLogger(slowQueryLog);
+    }
+
+    private StatementStatistics() {
+        // Private constructor to prevent instantiation
+    }
+
+    static void record(String pool, String sql, Object[] params, long nanos, long rows, boolean failed) {
+        String fingerprint = fingerprint(sql);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            entry = entries.size() < MAX_FINGERPRINTS
+                ? entries.computeIfAbsent(fingerprint, Entry::new)
+                : entries.computeIfAbsent(OTHER, Entry::new);
+        }
+        entry.record(nanos, rows, failed);
+        if (slowThresholdNanos > 0 && nanos >= slowThresholdNanos) {
+            entry.slow.increment();
+            logSlow(entry, pool, sql, params, nanos, rows, failed);
+        }
+    }
+
+    /**
+     * The fingerprints with the highest total time, highest first.
+     */
+    static List<StatementStats> top(int limit) {
+        List<StatementStats> stats = new ArrayList<>();
+        entries.values().forEach(entry -> stats.add(entry.snapshot()));
+        stats.sort(Comparator.comparingDouble(StatementStats::getTotalMillis).reversed());
+        return stats.size() > limit ? new ArrayList<>(stats.subList(0, limit)) : stats;
+    }
+
+    static void reset() {
+        entries.clear();
+    }
+
+    /**
+     * Only SQL with placeholders is cached: it repeats, while SQL with inline
+     * literals rarely does and would just push the repeating statements out.
+     */
+    static String fingerprint(String sql) {
+        boolean parameterized = sql.indexOf('?') >= 0;
+        if (parameterized) {
+            synchronized (fingerprintBySql) {
+                String cached = fingerprintBySql.get(sql);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+        String fingerprint = normalize(sql);
+        if (parameterized) {
+            synchronized (fingerprintBySql) {
+                fingerprintBySql.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    private static String normalize(String sql) {
+        // Skip the passes that cannot match
+        String normalized = sql.indexOf('\'') >= 0 ? STRING_LITERAL.matcher(sql).replaceAll("?") : sql;
+        if (hasDigit(normalized)) {
+            normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        }
+        normalized = WHITESPACE.matcher(normalized.trim()).replaceAll(" ");
+        if (normalized.indexOf(',') < 0 || normalized.indexOf('?') < 0) {
+            return normalized;
+        }
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?, ...)");
+        return normalized.contains("(?, ...)") ? REPEATED_LISTS.matcher(normalized).replaceAll("$1, ...") : normalized;
+    }
+
+    private static boolean hasDigit(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void logSlow(Entry entry, String pool, String sql, Object[] params, long nanos, long rows,
+                                boolean failed) {
+        if (slowQueryLog.isLoggable(Level.WARNING)) {
+            slowQueryLog.log(Level.WARNING, "Slow statement: {0} ms, {1} rows{2}: {3}", new Object[]{
+                TimeUnit.NANOSECONDS.toMillis(nanos), rows, failed ? ", failed" : "", entry.fingerprint});
+        }
+        if (!explainSlowQueries || failed) {
+            return;
+        }
+        // Explain on the database that ran the statement, in its dialect
+        Dialect dialect = pool != null
+            ? DatabaseConnectionManager.getDialect(pool)
+            : DatabaseConnectionManager.getDialect();
+        String prefix = dialect.explainPrefix();
+        String head = sql.trim().toUpperCase(Locale.ROOT);
+        if (prefix == null || !(head.startsWith("SELECT") || head.startsWith("WITH"))) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = entry.lastExplainNanos.get();
+        if (last != 0 && now - last < EXPLAIN_INTERVAL_NANOS || !entry.lastExplainNanos.compareAndSet(last, now)) {
+            return;
+        }
+        Object[] bound = params != null ? params.clone() : null;
+        explainExecutor.execute(() -> explain(entry.fingerprint, pool, prefix + sql, bound));
+    }
+
+    private static void explain(String fingerprint, String pool, String explainSql, Object[] params) {
+        Connection conn = null;
+        try {
+            conn = pool != null
+                ? DatabaseConnectionManager.getConnection(pool)
+                : DatabaseConnectionManager.getReadConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(explainSql)) {
+                int placeholders = pstmt.getParameterMetaData().getParameterCount();
+                for (int i = 0; i < placeholders; i++) {
+                    // Parameters bound by the caller beyond the where clause, such as a
+                    // page limit, are not known here
+                    pstmt.setObject(i + 1, params != null && i < params.length ? params[i] : null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    int columns = rs.getMetaData().getColumnCount();
+                    while (rs.next()) {
+                        for (int c = 1; c <= columns; c++) {
+                            plan.append(c == 1 ? "\n  " : " | ").append(rs.getString(c));
+                        }
+                    }
+                }
+                slowQueryLog.log(Level.WARNING, "Plan for slow statement {0}:{1}", new Object[]{fingerprint, plan});
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.FINE, "Could not explain slow statement " + fingerprint, e);
+        } finally {
+            DatabaseConnectionManager.closeConnection(conn);
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong lastExplainNanos = new AtomicLong();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void record(long nanos, long rowCount, boolean failed) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            if (failed) {
+                errors.increment();
+            }
+            long currentMax = maxNanos.get();
+            while (nanos > currentMax && !maxNanos.compareAndSet(currentMax, nanos)) {
+                currentMax = maxNanos.get();
+            }
+        }
+
+        StatementStats snapshot() {
+            return new StatementStats(fingerprint, count.sum(), errors.sum(), rows.sum(), slow.sum(),
+                totalNanos.sum(), maxNanos.get());
+        }
+    }
+}
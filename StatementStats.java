@@ -0,0 +1,66 @@
+package com.jdbc.crud;
+
+/**
+ * Point-in-time totals for one statement fingerprint. Times are in milliseconds.
+ */
+public class StatementStats {
+    private final String fingerprint;
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final long slowCount;
+    private final double totalMillis;
+    private final double meanMillis;
+    private final double maxMillis;
+
+    StatementStats(String fingerprint, long count, long errors, long rows, long slowCount, long totalNanos,
+                   long maxNanos) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.slowCount = slowCount;
+        this.totalMillis = totalNanos / 1_000_000.0;
+        this.meanMillis = count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+        this.maxMillis = maxNanos / 1_000_000.0;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /** Executions at or above the slow-query threshold. */
+    public long getSlowCount() {
+        return slowCount;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%10.1f ms total %8d calls %8.3f ms mean %8.1f ms max %6d errors  %s",
+            totalMillis, count, meanMillis, maxMillis, errors, fingerprint);
+    }
+}
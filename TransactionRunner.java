@@ -0,0 +1,172 @@
+package com.jdbc.crud;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs transactions through {@link CrudOperations#inTransaction} and runs them again
+ * when they fail with a deadlock or serialization failure (SQLState 40001 or 40P01,
+ * MySQL error 1213). Before each new attempt the runner sleeps for a random time of
+ * up to {@code initialBackoff * 2^retry}, capped at the maximum backoff, so
+ * conflicting transactions do not collide again in lockstep. Any other failure, or the
+ * last allowed attempt, is rethrown to the caller. The work must be safe to run more
+ * than once.
+ */
+public class TransactionRunner {
+    private static final Logger logger = Logger.getLogger(TransactionRunner.class.getName());
+    private static final int MYSQL_DEADLOCK = 1213;
+
+    private final CrudOperations crudOps;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder succeededAfterRetry = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    /**
+     * Uses DB_TX_MAX_ATTEMPTS (default 5), DB_TX_RETRY_BACKOFF_MS (default 10) and
+     * DB_TX_RETRY_MAX_BACKOFF_MS (default 1000).
+     */
+    public TransactionRunner(CrudOperations crudOps) {
+        this(crudOps,
+            DatabaseConnectionManager.getEnvInt("DB_TX_MAX_ATTEMPTS", 5),
+            DatabaseConnectionManager.getEnvInt("DB_TX_RETRY_BACKOFF_MS", 10),
+            DatabaseConnectionManager.getEnvInt("DB_TX_RETRY_MAX_BACKOFF_MS", 1000),
+            TimeUnit.MILLISECONDS);
+    }
+
+    public TransactionRunner(CrudOperations crudOps, int maxAttempts, long initialBackoff, long maxBackoff,
+                             TimeUnit unit) {
+        if (crudOps == null || maxAttempts < 1 || initialBackoff < 0 || maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException(
+                "Operations must be set, attempts at least 1 and backoffs non-negative and ordered");
+        }
+        this.crudOps = crudOps;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = unit.toNanos(initialBackoff);
+        this.maxBackoffNanos = unit.toNanos(maxBackoff);
+    }
+
+    /**
+     * Runs the work in a transaction, retrying it on deadlock or serialization failure.
+     * When the calling thread already has a transaction open, the work joins it and
+     * is not retried here; the outer transaction's owner has to retry instead.
+     */
+    public <T> T run(Function<CrudOperations, T> work) {
+        if (crudOps.isInTransaction()) {
+            return work.apply(crudOps);
+        }
+        transactions.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = crudOps.inTransaction(work);
+                if (attempt > 1) {
+                    succeededAfterRetry.increment();
+                }
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    failed.increment();
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    logger.log(Level.WARNING, "Transaction still conflicting after {0} attempts, giving up",
+                        attempt);
+                    throw e;
+                }
+                retries.increment();
+                long backoffNanos = backoff(attempt);
+                if (logger.isLoggable(Level.INFO)) {
+                    logger.log(Level.INFO, "Transaction attempt {0} hit a conflict ({1}), retrying in {2} ms",
+                        new Object[]{attempt, e.getMessage(), TimeUnit.NANOSECONDS.toMillis(backoffNanos)});
+                }
+                sleep(backoffNanos, e);
+            }
+        }
+    }
+
+    /**
+     * Whether the failure is a deadlock or serialization failure anywhere in the
+     * cause chain.
+     */
+    public static boolean isRetryable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                for (SQLException e = (SQLException) t; e != null; e = e.getNextException()) {
+                    String sqlState = e.getSQLState();
+                    if ("40001".equals(sqlState) || "40P01".equals(sqlState)
+                        || e.getErrorCode() == MYSQL_DEADLOCK) {
+                        return true;
+                    }
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /** Full jitter: uniformly random up to the capped exponential backoff. */
+    private long backoff(int attempt) {
+        long ceiling = initialBackoffNanos << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffNanos) {
+            ceiling = maxBackoffNanos;
+        }
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    private void sleep(long nanos, RuntimeException failure) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+            failure.addSuppressed(e);
+            throw failure;
+        }
+    }
+
+    /** Transactions started through {@link #run}, not counting retries. */
+    public long getTransactionCount() {
+        return transactions.sum();
+    }
+
+    /** Attempts that were repeated after a deadlock or serialization failure. */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /** Transactions that committed after at least one retry. */
+    public long getSucceededAfterRetryCount() {
+        return succeededAfterRetry.sum();
+    }
+
+    /** Transactions that gave up because every allowed attempt conflicted. */
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    /** Transactions that failed with an error that is not retried. */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+}
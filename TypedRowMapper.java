@@ -0,0 +1,237 @@
+package com.jdbc.crud;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps result set rows to records or beans. A mapper is built once per target type
+ * and column list and then cached. It is a single MethodHandle chain: the typed
+ * getter for each column ({@code getLong}, {@code getInt}, {@code getString}, ...)
+ * feeds the record constructor, or a setter or field of a bean, so primitive
+ * values are never boxed. Columns match properties by name, ignoring case and
+ * underscores, so {@code created_at} fills {@code createdAt}. Columns without a
+ * property are ignored. Properties without a column keep their default value.
+ */
+final class TypedRowMapper<T> {
+    private static final int MAX_CACHED_MAPPERS = 256;
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Key, TypedRowMapper<?>> mappers = new ConcurrentHashMap<>();
+
+    private final MethodHandle mapper;
+
+    private TypedRowMapper(MethodHandle mapper) {
+        // (ResultSet)Object
+        this.mapper = mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> TypedRowMapper<T> forType(Class<T> type, ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        Key key = new Key(type, labels);
+        TypedRowMapper<?> mapper = mappers.get(key);
+        if (mapper == null) {
+            if (mappers.size() >= MAX_CACHED_MAPPERS) {
+                Iterator<Key> keys = mappers.keySet().iterator();
+                if (keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+            mapper = mappers.computeIfAbsent(key, k -> build(type, labels));
+        }
+        return (TypedRowMapper<T>) mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    T map(ResultSet rs) throws SQLException {
+        try {
+            return (T) (Object) mapper.invokeExact(rs);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new CrudException("Failed to map row: " + t.getMessage(), t);
+        }
+    }
+
+    private static <T> TypedRowMapper<T> build(Class<T> type, String[] labels) {
+        Map<String, Integer> columnByName = new HashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            // Later duplicates win, as in RowSchema
+            columnByName.put(normalize(labels[i]), i + 1);
+        }
+        try {
+            MethodHandle mapper = type.isRecord()
+                ? recordMapper(type, columnByName)
+                : beanMapper(type, columnByName);
+            return new TypedRowMapper<>(mapper.asType(MethodType.methodType(Object.class, ResultSet.class)));
+        } catch (ReflectiveOperationException e) {
+            throw new CrudException("Cannot map rows to " + type.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Canonical constructor with every parameter filtered through its column getter,
+     * then all ResultSet parameters merged into one.
+     */
+    private static MethodHandle recordMapper(Class<?> type, Map<String, Integer> columnByName)
+            throws ReflectiveOperationException {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        MethodHandle[] getters = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+            Integer column = columnByName.get(normalize(components[i].getName()));
+            getters[i] = column != null
+                ? getter(parameterTypes[i], column)
+                : MethodHandles.dropArguments(MethodHandles.zero(parameterTypes[i]), 0, ResultSet.class);
+        }
+        Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+        MethodHandle handle = lookupFor(type).unreflectConstructor(constructor);
+        handle = MethodHandles.filterArguments(handle, 0, getters);
+        return MethodHandles.permuteArguments(handle, MethodType.methodType(type, ResultSet.class),
+            new int[components.length]);
+    }
+
+    /**
+     * No-argument constructor followed by one (bean, ResultSet) step per matched
+     * property; each step is a setter, or the field itself when there is no setter.
+     */
+    private static MethodHandle beanMapper(Class<?> type, Map<String, Integer> columnByName)
+            throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = lookupFor(type);
+        MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+        MethodHandle populate = MethodHandles.dropArguments(
+            MethodHandles.identity(type), 1, ResultSet.class);
+
+        Map<String, MethodHandle> writers = new HashMap<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                    writers.putIfAbsent(normalize(field.getName()), lookupFor(c).unreflectSetter(field));
+                }
+            }
+        }
+        for (Method method : type.getMethods()) {
+            if (method.getName().length() > 3 && method.getName().startsWith("set")
+                && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                writers.put(normalize(method.getName().substring(3)),
+                    lookup.unreflect(method).asType(MethodType.methodType(void.class, type,
+                        method.getParameterTypes()[0])));
+            }
+        }
+
+        for (Map.Entry<String, MethodHandle> writer : writers.entrySet()) {
+            Integer column = columnByName.get(writer.getKey());
+            if (column == null) {
+                continue;
+            }
+            MethodHandle setter = writer.getValue().asType(
+                writer.getValue().type().changeParameterType(0, type));
+            // (bean, ResultSet)void
+            MethodHandle step = MethodHandles.filterArguments(setter, 1, getter(setter.type().parameterType(1),
+                column));
+            // (bean, ResultSet)bean: run the step, then pass the bean on
+            populate = MethodHandles.foldArguments(populate, step);
+        }
+        // (ResultSet)bean
+        return MethodHandles.foldArguments(populate,
+            MethodHandles.dropArguments(constructor, 0, ResultSet.class));
+    }
+
+    /** (ResultSet)type reading the 1-based column with the getter matching the type. */
+    private static MethodHandle getter(Class<?> type, int column) throws ReflectiveOperationException {
+        MethodHandle handle;
+        if (type == long.class || type == int.class || type == double.class || type == float.class
+            || type == short.class || type == byte.class || type == boolean.class) {
+            String name = "get" + Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+            handle = LOOKUP.findVirtual(ResultSet.class, name, MethodType.methodType(type, int.class));
+        } else if (type == String.class) {
+            handle = LOOKUP.findVirtual(ResultSet.class, "getString", MethodType.methodType(String.class, int.class));
+        } else if (type == BigDecimal.class) {
+            handle = LOOKUP.findVirtual(ResultSet.class, "getBigDecimal",
+                MethodType.methodType(BigDecimal.class, int.class));
+        } else if (type == byte[].class) {
+            handle = LOOKUP.findVirtual(ResultSet.class, "getBytes", MethodType.methodType(byte[].class, int.class));
+        } else if (type == Object.class) {
+            handle = LOOKUP.findVirtual(ResultSet.class, "getObject", MethodType.methodType(Object.class, int.class));
+        } else if (type.isEnum()) {
+            handle = LOOKUP.findStatic(TypedRowMapper.class, "getEnum",
+                MethodType.methodType(Enum.class, ResultSet.class, int.class, Class.class));
+            handle = MethodHandles.insertArguments(handle, 2, type);
+        } else {
+            // Boxed primitives keep SQL NULL; java.time and other types go through the driver
+            handle = LOOKUP.findStatic(TypedRowMapper.class, "getTyped",
+                MethodType.methodType(Object.class, ResultSet.class, int.class, Class.class));
+            handle = MethodHandles.insertArguments(handle, 2, type);
+        }
+        handle = MethodHandles.insertArguments(handle, 1, column);
+        return handle.asType(MethodType.methodType(type, ResultSet.class));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Enum getEnum(ResultSet rs, int column, Class type) throws SQLException {
+        String value = rs.getString(column);
+        return value != null ? Enum.valueOf(type, value) : null;
+    }
+
+    private static Object getTyped(ResultSet rs, int column, Class<?> type) throws SQLException {
+        return rs.getObject(column, type);
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> type) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(type, LOOKUP);
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final String[] labels;
+        private final int hash;
+
+        Key(Class<?> type, String[] labels) {
+            this.type = type;
+            this.labels = labels;
+            this.hash = 31 * type.hashCode() + Arrays.hashCode(labels);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && type == other.type && Arrays.equals(labels, other.labels);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.jdbc.crud;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects single-row writes and commits them in groups. Writes wait in a bounded
+ * queue; a background thread takes everything that arrives within the commit window,
+ * up to the batch limit, and runs it as one transaction on one connection.
+ * Consecutive writes with the same statement share one JDBC batch. Writes are applied
+ * in the order they were submitted, so dependent writes stay correct. Each write's
+ * future completes once the transaction holding it has committed. When a group
+ * fails, it is rolled back and its writes are retried one at a time, so a bad write
+ * fails only its own future. When the queue is full, submitting blocks until there
+ * is room.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(WriteBehindQueue.class.getName());
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    private final CrudOperations crudOps = new CrudOperations();
+    private final BlockingQueue<Write> queue;
+    private final int maxBatchRows;
+    private final long windowNanos;
+    private final Thread worker;
+    private volatile boolean closed = false;
+
+    static {
+        LoggerUtil.configureLogger(logger);
+    }
+
+    /**
+     * Uses a queue of 10000 writes, batches of up to 500 rows and a 5 ms window.
+     */
+    public WriteBehindQueue() {
+        this(10_000, 500, 5, TimeUnit.MILLISECONDS);
+    }
+
+    public WriteBehindQueue(int capacity, int maxBatchRows, long window, TimeUnit unit) {
+        if (capacity < 1 || maxBatchRows < 1 || window < 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be at least 1, window non-negative");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchRows = maxBatchRows;
+        this.windowNanos = unit.toNanos(window);
+        this.worker = Thread.ofPlatform().name("write-behind").daemon().start(this::run);
+    }
+
+    public CompletableFuture<Void> createRecord(String tableName, String[] columns, Object[] values) {
+        if (columns == null || values == null || columns.length != values.length) {
+            throw new IllegalArgumentException("Columns and values must be non-null and of equal length");
+        }
+        return submit(tableName, crudOps.buildInsertQuery(tableName, columns), values.clone());
+    }
+
+    /**
+     * Queues an update; the where parameters are bound after the SET values.
+     */
+    public CompletableFuture<Void> updateRecord(String tableName, String[] columns, Object[] values,
+                                                String whereClause, Object... whereParams) {
+        if (columns == null || values == null || columns.length != values.length) {
+            throw new IllegalArgumentException("Columns and values must be non-null and of equal length");
+        }
+        Object[] params = whereParams != null ? whereParams : NO_PARAMS;
+        Object[] bound = new Object[values.length + params.length];
+        System.arraycopy(values, 0, bound, 0, values.length);
+        System.arraycopy(params, 0, bound, values.length, params.length);
+        return submit(tableName, crudOps.buildUpdateQuery(tableName, columns, whereClause, params), bound);
+    }
+
+    public CompletableFuture<Void> deleteRecord(String tableName, String whereClause, Object... whereParams) {
+        Object[] params = whereParams != null ? whereParams.clone() : NO_PARAMS;
+        return submit(tableName, crudOps.buildDeleteQuery(tableName, whereClause, params), params);
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    private CompletableFuture<Void> submit(String tableName, String sql, Object[] params) {
+        if (closed) {
+            throw new IllegalStateException("Write-behind queue is closed");
+        }
+        Write write = new Write(tableName, sql, params);
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CrudException("Interrupted while waiting for room in the write-behind queue", e);
+        }
+        // close() may have drained the queue for the last time while this write was
+        // being queued; if nobody has taken it, take it back instead of stranding it
+        if (closed && queue.remove(write)) {
+            throw new IllegalStateException("Write-behind queue is closed");
+        }
+        return write.future;
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(maxBatchRows);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Write first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchRows) {
+                    long remaining = deadline - System.nanoTime();
+                    Write next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nobody interrupts this thread on purpose; commit what was collected and go on
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) {
+                // Queued writes give way to interactive callers when connections are scarce
+                AdmissionControl.run(AdmissionControl.Priority.BATCH, null, () -> commit(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commits the writes as one transaction. If that fails, the writes are retried one
+     * at a time in submission order, so only the futures of the writes that fail on
+     * their own complete exceptionally.
+     */
+    private void commit(List<Write> batch) {
+        Exception failure = commitGroup(batch);
+        if (failure == null) {
+            batch.forEach(write -> write.future.complete(null));
+            return;
+        }
+        if (batch.size() == 1) {
+            fail(batch.get(0), failure);
+            return;
+        }
+        logger.log(Level.WARNING, "Group commit of " + batch.size() + " writes failed, retrying them one at a time",
+            failure);
+        for (Write write : batch) {
+            Exception writeFailure = commitGroup(List.of(write));
+            if (writeFailure == null) {
+                write.future.complete(null);
+            } else {
+                fail(write, writeFailure);
+            }
+        }
+    }
+
+    private static void fail(Write write, Exception e) {
+        logger.log(Level.SEVERE, "Write-behind " + write.sql + " failed", e);
+        write.future.completeExceptionally(new CrudException("Group commit failed: " + e.getMessage(), e));
+    }
+
+    /**
+     * Runs the writes in one transaction and returns null once it has committed, or
+     * the error after rolling it back.
+     */
+    private Exception commitGroup(List<Write> writes) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Set<String> tables = new LinkedHashSet<>();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnectionManager.getConnection();
+            conn.setAutoCommit(false);
+            int i = 0;
+            while (i < writes.size()) {
+                String sql = writes.get(i).sql;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    // Consecutive writes with the same statement share one batch
+                    for (; i < writes.size() && writes.get(i).sql.equals(sql); i++) {
+                        Write write = writes.get(i);
+                        for (int p = 0; p < write.params.length; p++) {
+                            pstmt.setObject(p + 1, write.params[p]);
+                        }
+                        pstmt.addBatch();
+                        tables.add(write.tableName);
+                    }
+                    pstmt.executeBatch();
+                }
+            }
+            conn.commit();
+            failed = false;
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Group commit of {0} writes", writes.size());
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    logger.log(Level.WARNING, "Error rolling back group commit", rollbackError);
+                }
+            }
+            return e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Error restoring auto-commit", e);
+                }
+                DatabaseConnectionManager.closeConnection(conn);
+            }
+            CrudMetrics.record(CrudMetrics.Operation.GROUP_COMMIT, null, start, writes.size(), failed);
+        }
+        QueryResultCache cache = CrudOperations.getResultCache();
+        if (cache != null) {
+            tables.forEach(cache::invalidate);
+        }
+        return null;
+    }
+
+    /**
+     * Stops accepting writes, commits everything already queued and waits for the
+     * background thread to finish.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Writes that raced with close() after the worker's last look at the queue.
+        // Draining also frees room for submitters blocked on a full queue, which then
+        // find the queue closed and withdraw their writes.
+        List<Write> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            commit(rest);
+        }
+    }
+
+    private static final class Write {
+        private final String tableName;
+        private final String sql;
+        private final Object[] params;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Write(String tableName, String sql, Object[] params) {
+            this.tableName = tableName;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.jdbc.crud.bench;
+
+import com.jdbc.crud.CrudOperations;
+import com.jdbc.crud.DatabaseConnectionManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates and fills the benchmark tables in the in-process database that DB_URL
+ * points at, e.g. {@code jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1}.
+ */
+final class BenchmarkDatabase {
+    static final String TABLE = "bench_rows";
+    static final String CHILD_TABLE = "bench_children";
+
+    private BenchmarkDatabase() {
+        // Private constructor to prevent instantiation
+    }
+
+    static String[] columns(int columnCount) {
+        String[] columns = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = "c" + i;
+        }
+        return columns;
+    }
+
+    static Object[] values(int columnCount, long seed) {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = "value-" + seed + "-" + i;
+        }
+        return values;
+    }
+
+    /**
+     * Recreates the tables with the given number of payload columns and loads
+     * {@code rowCount} rows into each, with ids 1..rowCount.
+     */
+    static void create(int columnCount, int rowCount) throws SQLException {
+        quietLogging();
+
+        StringBuilder ddl = new StringBuilder("CREATE TABLE " + TABLE + " (id BIGINT AUTO_INCREMENT PRIMARY KEY");
+        for (String column : columns(columnCount)) {
+            ddl.append(", ").append(column).append(" VARCHAR(64)");
+        }
+        ddl.append(")");
+
+        Connection conn = DatabaseConnectionManager.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + CHILD_TABLE);
+            stmt.execute("DROP TABLE IF EXISTS " + TABLE);
+            stmt.execute(ddl.toString());
+            stmt.execute("CREATE TABLE " + CHILD_TABLE + " (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "parent_id BIGINT NOT NULL, amount DECIMAL(12, 2))");
+            stmt.execute("CREATE INDEX " + CHILD_TABLE + "_parent ON " + CHILD_TABLE + " (parent_id)");
+        } finally {
+            DatabaseConnectionManager.closeConnection(conn);
+        }
+
+        CrudOperations crudOps = new CrudOperations();
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        List<Object[]> children = new ArrayList<>(rowCount);
+        for (int i = 1; i <= rowCount; i++) {
+            rows.add(values(columnCount, i));
+            children.add(new Object[]{(long) i, i % 1000});
+        }
+        crudOps.createRecords(TABLE, columns(columnCount), rows);
+        crudOps.createRecords(CHILD_TABLE, new String[]{"parent_id", "amount"}, children);
+    }
+
+    /**
+     * Per-statement INFO logging would dominate every measurement.
+     */
+    static void quietLogging() {
+        new CrudOperations();
+        for (String name : new String[]{"com.jdbc.crud.CrudOperations", "com.jdbc.crud.ResultSetStream"}) {
+            Logger.getLogger(name).setLevel(Level.WARNING);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.jdbc.crud.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count with the GC profiler attached, so every
+ * result comes with its allocation rate. Usage:
+ * <pre>
+ * DB_URL="jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1" DB_USER=sa DB_PASS="" \
+ *     java -jar target/benchmarks.jar [benchmark regex] [thread counts, e.g. 1,4,16]
+ * </pre>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        if (System.getenv("DB_URL") == null) {
+            System.err.println("DB_URL must point at the benchmark database, e.g. jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+            System.exit(1);
+        }
+        String include = args.length > 0 ? args[0] : CrudBenchmark.class.getSimpleName();
+        String threadCounts = args.length > 1 ? args[1] : "1,4,16";
+
+        for (String threads : threadCounts.split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .threads(Integer.parseInt(threads.trim()))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-" + threads.trim() + "-threads.json");
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.jdbc.crud.bench;
+
+import com.jdbc.crud.CrudOperations;
+import com.jdbc.crud.DatabaseConnectionManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares per-row createRecord against batched createRecords.
+ * Point DB_URL at an embedded database, e.g.
+ * DB_URL="jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1" DB_USER=sa DB_PASS=""
+ */
+public class BulkInsertBenchmark {
+    private static final String[] COLUMNS = {"name", "email", "age"};
+
+    public static void main(String[] args) throws SQLException {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        BenchmarkDatabase.quietLogging();
+        CrudOperations crudOps = new CrudOperations();
+        crudOps.setBatchSize(batchSize);
+
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new Object[]{"User " + i, "user" + i + "@example.com", 20 + i % 50});
+        }
+
+        resetTable();
+        long start = System.nanoTime();
+        for (Object[] row : rows) {
+            crudOps.createRecord("bench_users", COLUMNS, row);
+        }
+        report("createRecord (per row)", rowCount, System.nanoTime() - start);
+
+        resetTable();
+        start = System.nanoTime();
+        crudOps.createRecords("bench_users", COLUMNS, rows);
+        report("createRecords (batch " + batchSize + ")", rowCount, System.nanoTime() - start);
+
+        resetTable();
+        start = System.nanoTime();
+        crudOps.beginTransaction();
+        crudOps.createRecords("bench_users", COLUMNS, rows);
+        crudOps.commitTransaction();
+        report("createRecords in transaction", rowCount, System.nanoTime() - start);
+
+        DatabaseConnectionManager.shutdown();
+    }
+
+    private static void resetTable() throws SQLException {
+        Connection conn = DatabaseConnectionManager.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS bench_users");
+            stmt.execute("CREATE TABLE bench_users (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "name VARCHAR(100), email VARCHAR(100), age INT)");
+        } finally {
+            DatabaseConnectionManager.closeConnection(conn);
+        }
+    }
+
+    private static void report(String label, int rowCount, long elapsedNanos) {
+        double millis = elapsedNanos / 1_000_000.0;
+        System.out.printf("%-32s %8d rows %10.1f ms %12.0f rows/s%n",
+            label, rowCount, millis, rowCount / (millis / 1000.0));
+    }
+}
@@ -0,0 +1,137 @@
+package com.jdbc.crud.bench;
+
+import com.jdbc.crud.CrudOperations;
+import com.jdbc.crud.DatabaseConnectionManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CrudOperations against an in-process H2 database. Each benchmark runs in its own
+ * fork, so the table starts at {@code rowCount} rows for every method.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrudBenchmark {
+    private static final int BATCH_ROWS = 100;
+
+    @Param({"100", "10000"})
+    public int rowCount;
+
+    @Param({"4", "16"})
+    public int columnCount;
+
+    private String[] columns;
+    private String[] idAndColumns;
+    private String[] updateColumns;
+    private final AtomicLong nextId = new AtomicLong(1_000_000_000L);
+
+    @State(Scope.Thread)
+    public static class Session {
+        final CrudOperations crudOps = new CrudOperations();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        BenchmarkDatabase.create(columnCount, rowCount);
+        columns = BenchmarkDatabase.columns(columnCount);
+        idAndColumns = new String[columnCount + 1];
+        idAndColumns[0] = "id";
+        System.arraycopy(columns, 0, idAndColumns, 1, columnCount);
+        updateColumns = new String[]{columns[0]};
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rowCount + 1);
+    }
+
+    @Benchmark
+    public void createRecord(Session session) {
+        session.crudOps.createRecord(BenchmarkDatabase.TABLE, columns,
+            BenchmarkDatabase.values(columnCount, ThreadLocalRandom.current().nextLong()));
+    }
+
+    @Benchmark
+    public int[] createRecordsBatch(Session session) {
+        Object[][] rows = new Object[BATCH_ROWS][];
+        for (int i = 0; i < BATCH_ROWS; i++) {
+            rows[i] = BenchmarkDatabase.values(columnCount, i);
+        }
+        return session.crudOps.createRecords(BenchmarkDatabase.TABLE, columns, List.of(rows));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> readRecordsFullScan(Session session) {
+        return session.crudOps.readRecords(BenchmarkDatabase.TABLE, columns, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> readRecordById(Session session) {
+        return session.crudOps.readRecords(BenchmarkDatabase.TABLE, columns, "id = ?", randomId());
+    }
+
+    @Benchmark
+    public void updateRecord(Session session) {
+        session.crudOps.updateRecord(BenchmarkDatabase.TABLE, updateColumns,
+            new Object[]{"updated-" + ThreadLocalRandom.current().nextInt()}, "id = ?", randomId());
+    }
+
+    /**
+     * Inserts a row with a known id and deletes it again, so every delete hits a row.
+     */
+    @Benchmark
+    public void createAndDeleteRecord(Session session) {
+        long id = nextId.incrementAndGet();
+        Object[] values = new Object[columnCount + 1];
+        values[0] = id;
+        System.arraycopy(BenchmarkDatabase.values(columnCount, id), 0, values, 1, columnCount);
+        session.crudOps.createRecord(BenchmarkDatabase.TABLE, idAndColumns, values);
+        session.crudOps.deleteRecord(BenchmarkDatabase.TABLE, "id = ?", id);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> executeJoinQuery(Session session) {
+        return session.crudOps.executeJoinQuery("SELECT r.id, r.c0, c.amount FROM " + BenchmarkDatabase.TABLE
+            + " r JOIN " + BenchmarkDatabase.CHILD_TABLE + " c ON r.id = c.parent_id");
+    }
+
+    @Benchmark
+    public void transactionalCreateAndUpdate(Session session) throws SQLException {
+        CrudOperations crudOps = session.crudOps;
+        crudOps.beginTransaction();
+        try {
+            crudOps.createRecord(BenchmarkDatabase.TABLE, columns,
+                BenchmarkDatabase.values(columnCount, ThreadLocalRandom.current().nextLong()));
+            crudOps.updateRecord(BenchmarkDatabase.TABLE, updateColumns, new Object[]{"in-tx"}, "id = ?", randomId());
+            crudOps.commitTransaction();
+        } catch (RuntimeException e) {
+            crudOps.rollbackTransaction();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.jdbc.crud.bench;
+
+import com.jdbc.crud.CrudOperations;
+import com.jdbc.crud.DatabaseConnectionManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading rows into domain objects: through Map rows converted by hand, as callers
+ * of the untyped readRecords do, versus the typed readRecords overload.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+    private static final String[] COLUMNS = {"id", "c0", "c1", "c2", "c3"};
+
+    public record BenchRow(long id, String c0, String c1, String c2, String c3) {
+    }
+
+    @Param({"100", "10000"})
+    public int rowCount;
+
+    private final CrudOperations crudOps = new CrudOperations();
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        BenchmarkDatabase.create(4, rowCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnectionManager.shutdown();
+    }
+
+    @Benchmark
+    public List<BenchRow> mapRowsByHand() {
+        List<Map<String, Object>> rows = crudOps.readRecords(BenchmarkDatabase.TABLE, COLUMNS, null);
+        List<BenchRow> result = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            // H2 reports upper-case column names
+            result.add(new BenchRow(((Number) row.get("ID")).longValue(), (String) row.get("C0"),
+                (String) row.get("C1"), (String) row.get("C2"), (String) row.get("C3")));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<BenchRow> typedReadRecords() {
+        return crudOps.readRecords(BenchmarkDatabase.TABLE, COLUMNS, null, BenchRow.class);
+    }
+}
@@ -0,0 +1,113 @@
+package com.jdbc.crud.bench;
+
+import com.jdbc.crud.CrudOperations;
+import com.jdbc.crud.DatabaseConnectionManager;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares allocation and retained heap of HashMap rows against the schema-backed
+ * Rows returned by readRecords for a large result. Both read the same table through
+ * JDBC, so the difference is the per-row container. Point DB_URL at an embedded
+ * database, e.g. DB_URL="jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1" DB_USER=sa DB_PASS="",
+ * and run with a fixed heap such as -Xmx4g so the numbers are comparable between runs.
+ */
+public class RowMemoryBenchmark {
+    private static final String TABLE = "bench_memory";
+    private static final String[] COLUMNS = {"id", "name", "email", "age", "status", "created_at"};
+
+    public static void main(String[] args) throws SQLException {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        BenchmarkDatabase.quietLogging();
+        createTable(rowCount);
+        CrudOperations crudOps = new CrudOperations();
+        // Keep class loading and JIT compilation out of the timings
+        readHashMapRows();
+        crudOps.readRecords(TABLE, COLUMNS, null);
+
+        measure("HashMap rows", rowCount, RowMemoryBenchmark::readHashMapRows);
+        measure("Schema-backed rows", rowCount, () -> crudOps.readRecords(TABLE, COLUMNS, null));
+
+        DatabaseConnectionManager.shutdown();
+    }
+
+    private static void createTable(int rowCount) throws SQLException {
+        Connection conn = DatabaseConnectionManager.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + TABLE);
+            stmt.execute("CREATE TABLE " + TABLE + " (id BIGINT PRIMARY KEY, name VARCHAR(100), "
+                + "email VARCHAR(100), age INT, status VARCHAR(20), created_at TIMESTAMP)");
+        } finally {
+            DatabaseConnectionManager.closeConnection(conn);
+        }
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (long id = 1; id <= rowCount; id++) {
+            rows.add(new Object[]{id, "John Doe", "john@example.com", 30, "active", new Timestamp(0)});
+        }
+        new CrudOperations().createRecords(TABLE, COLUMNS, rows);
+    }
+
+    /** What a row looked like before Row: one HashMap per row, filled from the result set. */
+    private static List<Map<String, Object>> readHashMapRows() throws SQLException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Connection conn = DatabaseConnectionManager.getConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT " + String.join(", ", COLUMNS) + " FROM " + TABLE);
+             ResultSet rs = pstmt.executeQuery()) {
+            String[] names = new String[rs.getMetaData().getColumnCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = rs.getMetaData().getColumnName(i + 1);
+            }
+            while (rs.next()) {
+                Map<String, Object> row = new HashMap<>();
+                for (int i = 0; i < names.length; i++) {
+                    row.put(names[i], rs.getObject(i + 1));
+                }
+                rows.add(row);
+            }
+        } finally {
+            DatabaseConnectionManager.closeConnection(conn);
+        }
+        return rows;
+    }
+
+    private static void measure(String label, int rowCount, RowSupplier supplier) throws SQLException {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long heapBefore = usedHeapAfterGc();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        List<Map<String, Object>> rows = supplier.get();
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long retained = usedHeapAfterGc() - heapBefore;
+
+        System.out.printf("%-20s %9d rows  allocated %8.1f MB (%5.0f B/row)  retained %8.1f MB (%5.0f B/row)"
+            + "  %6.0f ms%n", label, rows.size(), allocated / 1e6, (double) allocated / rowCount,
+            retained / 1e6, (double) retained / rowCount, elapsedNanos / 1e6);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private interface RowSupplier {
+        List<Map<String, Object>> get() throws SQLException;
+    }
+}